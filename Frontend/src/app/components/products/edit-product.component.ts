@@ -2,6 +2,8 @@ import { Component, OnInit } from '@angular/core';
 import { FormBuilder, FormGroup, Validators, ReactiveFormsModule } from '@angular/forms';
 import { Router, ActivatedRoute } from '@angular/router';
 import { CommonModule } from '@angular/common';
+import { of } from 'rxjs';
+import { switchMap } from 'rxjs/operators';
 import { ProductService } from '../../services/product.service';
 import { Product } from '../../models/product.model';
 
@@ -192,6 +194,7 @@ import { Product } from '../../models/product.model';
 export class EditProductComponent implements OnInit {
   productForm: FormGroup;
   productId: number = 0;
+  loadedQuantity: number = 0;
   loading: boolean = true;
 
   constructor(
@@ -229,6 +232,7 @@ export class EditProductComponent implements OnInit {
             category: product.category || '',
             imageUrl: product.imageUrl || ''
           });
+          this.loadedQuantity = product.quantity;
           console.log('Form patched with values:', this.productForm.value);
         }
         this.loading = false;
@@ -263,7 +267,10 @@ export class EditProductComponent implements OnInit {
       };
 
       console.log('Submitting product update:', updatedProduct);
-      this.productService.updateProduct(this.productId, updatedProduct).subscribe({
+      const stockDelta = updatedProduct.quantity - this.loadedQuantity;
+      this.productService.updateProduct(this.productId, updatedProduct).pipe(
+        switchMap(saved => stockDelta !== 0 ? this.productService.adjustStock(this.productId, stockDelta) : of(saved))
+      ).subscribe({
         next: (response) => {
           console.log('Product updated successfully:', response);
           alert('Product updated successfully!');
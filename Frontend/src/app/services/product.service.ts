@@ -70,6 +70,11 @@ export class ProductService {
     );
   }
 
+  // Stock moves by a relative delta so concurrent sales are not overwritten
+  adjustStock(id: number, delta: number): Observable<Product> {
+    return this.http.post<Product>(`${this.apiUrl}/${id}/stock`, { delta }, { headers: this.getHeaders() });
+  }
+
   deleteProduct(id: number): Observable<any> {
     console.log('Deleting product with ID:', id);
     return this.http.delete(`${this.apiUrl}/${id}`, { 
@@ -1,9 +1,13 @@
 package com.simpleecom.apigateway;
 
+import com.simpleecom.common.tracing.TracingConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
+// Only the tracing config: the rest of common is servlet or JPA specific
 @SpringBootApplication
+@Import(TracingConfig.class)
 public class ApiGatewayApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,188 @@
+package com.simpleecom.apigateway.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-memory store of upstream GET responses. An entry is fresh for
+ * gateway.cache.ttl-ms and is then kept as a stale copy for up to
+ * gateway.cache.stale-ttl-ms, which is only served when the upstream is
+ * failing. Every invalidation bumps a generation so that a response fetched
+ * before it is not stored after it.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    private final long ttlMs;
+    private final long staleTtlMs;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+
+    public ResponseCache(@Value("${gateway.cache.ttl-ms:5000}") long ttlMs,
+                         @Value("${gateway.cache.stale-ttl-ms:300000}") long staleTtlMs,
+                         @Value("${gateway.cache.max-entries:5000}") int maxEntries,
+                         @Value("${gateway.cache.max-bytes:67108864}") long maxBytes) {
+        this.ttlMs = ttlMs;
+        this.staleTtlMs = staleTtlMs;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public Entry getFresh(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.freshUntil > System.currentTimeMillis()) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public Entry getStale(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.staleUntil <= System.currentTimeMillis()) {
+            remove(key, entry);
+            return null;
+        }
+        staleServed.increment();
+        return entry;
+    }
+
+    // Read before going upstream and handed to put()
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores the response unless an invalidation happened since the given
+     * generation was read; the entry is returned either way so the caller
+     * can still answer with it.
+     */
+    public Entry put(String key, HttpStatus status, String contentType, String etag, byte[] body,
+                     long startedAtGeneration) {
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(status, contentType, etag, body, now + ttlMs, now + ttlMs + staleTtlMs);
+        if (generation.get() != startedAtGeneration) {
+            return entry;
+        }
+        if (entries.size() >= maxEntries || totalBytes.get() + body.length > maxBytes) {
+            makeRoom(body.length);
+        }
+        Entry previous = entries.put(key, entry);
+        totalBytes.addAndGet(body.length - (previous == null ? 0 : previous.body.length));
+        // An invalidation that raced the put may have swept before it landed
+        if (generation.get() != startedAtGeneration) {
+            remove(key, entry);
+        }
+        return entry;
+    }
+
+    public void invalidatePrefix(String pathPrefix) {
+        generation.incrementAndGet();
+        Iterator<java.util.Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            java.util.Map.Entry<String, Entry> next = it.next();
+            if (next.getKey().startsWith(pathPrefix)) {
+                it.remove();
+                totalBytes.addAndGet(-next.getValue().body.length);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "responses", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "responses", "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("gateway.cache.stale.served", staleServed, LongAdder::sum)
+                .description("Stale responses served while the upstream was failing")
+                .register(registry);
+        Gauge.builder("cache.size", entries, ConcurrentHashMap::size)
+                .tag("cache", "responses")
+                .register(registry);
+        Gauge.builder("gateway.cache.bytes", totalBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void makeRoom(int incoming) {
+        long now = System.currentTimeMillis();
+        entries.forEach((key, entry) -> {
+            if (entry.staleUntil <= now) {
+                remove(key, entry);
+            }
+        });
+        // Still over budget: drop arbitrary entries, they are refetched on demand
+        Iterator<String> keys = entries.keySet().iterator();
+        while ((entries.size() >= maxEntries || totalBytes.get() + incoming > maxBytes) && keys.hasNext()) {
+            String key = keys.next();
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                remove(key, entry);
+            }
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            totalBytes.addAndGet(-entry.body.length);
+        }
+    }
+
+    public static class Entry {
+        private final HttpStatus status;
+        private final String contentType;
+        private final String etag;
+        private final byte[] body;
+        private final long freshUntil;
+        private final long staleUntil;
+
+        Entry(HttpStatus status, String contentType, String etag, byte[] body, long freshUntil, long staleUntil) {
+            this.status = status;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.body = body;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+
+        public HttpStatus getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.simpleecom.apigateway.config;
+
+import com.simpleecom.common.loadbalancer.UserAffinityLoadBalancerConfig;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Configuration;
+
+// cart-service holds each user's cart in its write-behind buffer, so a user must stay on one instance
+@Configuration
+@LoadBalancerClient(name = "cart-service", configuration = UserAffinityLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,59 @@
+package com.simpleecom.apigateway.controller;
+
+import com.simpleecom.apigateway.cache.ResponseCache;
+import com.simpleecom.apigateway.filter.ResponseCacheFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Targets of the routes' circuit breaker fallbackUri. Catalog reads are
+ * answered from the last cached copy when one is still held; everything else
+ * gets a quick 503 instead of waiting on a backend that is known to be down.
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private final ResponseCache responseCache;
+    private final int retryAfterSeconds;
+
+    public FallbackController(ResponseCache responseCache,
+                              @Value("${gateway.fallback.retry-after-seconds:5}") int retryAfterSeconds) {
+        this.responseCache = responseCache;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @RequestMapping("/products")
+    public ResponseEntity<?> products(ServerWebExchange exchange) {
+        // Only set for GETs the cache filter considered cacheable
+        String key = exchange.getAttribute(ResponseCacheFilter.CACHE_KEY_ATTR);
+        if (key != null) {
+            ResponseCache.Entry stale = responseCache.getStale(key);
+            if (stale != null) {
+                ResponseEntity.BodyBuilder response = ResponseEntity.status(stale.getStatus())
+                        .header("X-Cache", "STALE")
+                        .header(HttpHeaders.WARNING, "110 - \"Response is stale\"");
+                if (stale.getContentType() != null) {
+                    response.contentType(MediaType.parseMediaType(stale.getContentType()));
+                }
+                return response.body(stale.getBody());
+            }
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Error: Product service temporarily unavailable");
+    }
+
+    @RequestMapping("/unavailable")
+    public ResponseEntity<?> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Error: Service temporarily unavailable");
+    }
+}
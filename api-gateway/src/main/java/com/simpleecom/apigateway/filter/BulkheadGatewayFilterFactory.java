@@ -0,0 +1,65 @@
+package com.simpleecom.apigateway.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how many requests a route may have in flight at once. Past the cap
+ * the request is answered 503 immediately instead of queueing for a pooled
+ * connection, so one slow backend cannot soak up the gateway's connections
+ * and event-loop time that other routes need.
+ *
+ * Usage: "- name: Bulkhead" with "args: maxConcurrent: 100".
+ */
+@Component
+public class BulkheadGatewayFilterFactory extends AbstractGatewayFilterFactory<BulkheadGatewayFilterFactory.Config> {
+
+    private final int retryAfterSeconds;
+
+    public BulkheadGatewayFilterFactory(@Value("${gateway.fallback.retry-after-seconds:5}") int retryAfterSeconds) {
+        super(Config.class);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return Collections.singletonList("maxConcurrent");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // One counter per route the filter is declared on
+        AtomicInteger active = new AtomicInteger();
+        return (exchange, chain) -> {
+            if (active.incrementAndGet() > config.getMaxConcurrent()) {
+                active.decrementAndGet();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                return response.setComplete();
+            }
+            return chain.filter(exchange).doFinally(signal -> active.decrementAndGet());
+        };
+    }
+
+    public static class Config {
+        private int maxConcurrent = 100;
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.simpleecom.apigateway.filter;
+
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts the correlation id for a request. A short, plain X-Request-Id sent
+ * by the client is kept; anything else is replaced with a fresh id. The id is
+ * forwarded to the services, which log it as requestId, and set on the
+ * response, including ones the gateway answers itself (429, 503, cache hits).
+ */
+@Component
+public class RequestIdFilter implements WebFilter, Ordered {
+
+    public static final String HEADER = "X-Request-Id";
+
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String incoming = exchange.getRequest().getHeaders().getFirst(HEADER);
+        String requestId = isWellFormed(incoming) ? incoming : newId();
+        exchange.getResponse().getHeaders().set(HEADER, requestId);
+        if (requestId == incoming) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().request(request -> request.header(HEADER, requestId)).build());
+    }
+
+    // Random but not SecureRandom: ids only need to be unique, not unguessable
+    private static String newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    // Ids end up verbatim in log lines, so only short plain tokens are trusted
+    private static boolean isWellFormed(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '_' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
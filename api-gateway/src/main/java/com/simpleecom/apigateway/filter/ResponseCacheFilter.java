@@ -0,0 +1,227 @@
+package com.simpleecom.apigateway.filter;
+
+import com.simpleecom.apigateway.cache.ResponseCache;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches successful catalog GET responses and collapses concurrent identical
+ * requests into one upstream call: the first request for a key goes to the
+ * product service, and requests arriving while it is in flight wait for its
+ * result instead of issuing their own. Responses carry an ETag so clients can
+ * revalidate with If-None-Match and get a bodiless 304. A non-GET request
+ * under the cached prefix, outside the excluded paths, drops the cached
+ * entries once it completes, and a response fetched while it was in flight
+ * is not stored.
+ *
+ * Runs just before NettyWriteResponseFilter so it can see the upstream body.
+ * Bodies are counted as they stream; one that passes max-body-bytes is
+ * passed through chunk by chunk and not cached, so the gateway never holds
+ * more than that much of a response.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = -2;
+
+    /** Exchange attribute holding the cache key, read by the circuit breaker fallback. */
+    public static final String CACHE_KEY_ATTR = ResponseCacheFilter.class.getName() + ".cacheKey";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final ResponseCache responseCache;
+    private final String pathPrefix;
+    private final List<String> excludedPrefixes;
+    private final int maxBodyBytes;
+
+    private final Map<String, Mono<ResponseCache.Entry>> inFlight = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCache responseCache,
+                               @Value("${gateway.cache.path-prefix:/api/products}") String pathPrefix,
+                               @Value("${gateway.cache.excluded-prefixes:/api/products/export,/api/products/inventory,/api/products/cache}") List<String> excludedPrefixes,
+                               @Value("${gateway.cache.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.responseCache = responseCache;
+        this.pathPrefix = pathPrefix;
+        this.excludedPrefixes = excludedPrefixes;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!path.startsWith(pathPrefix)) {
+            return chain.filter(exchange);
+        }
+        for (String excluded : excludedPrefixes) {
+            if (path.startsWith(excluded)) {
+                return chain.filter(exchange);
+            }
+        }
+        if (request.getMethod() != HttpMethod.GET) {
+            if (request.getMethod() == HttpMethod.HEAD || request.getMethod() == HttpMethod.OPTIONS) {
+                return chain.filter(exchange);
+            }
+            // After the write, so a GET that raced it cannot re-cache the old state
+            return chain.filter(exchange).doOnSuccess(done -> responseCache.invalidatePrefix(pathPrefix));
+        }
+
+        String key = cacheKey(request);
+        exchange.getAttributes().put(CACHE_KEY_ATTR, key);
+        ResponseCache.Entry cached = responseCache.getFresh(key);
+        if (cached != null) {
+            return write(exchange, cached, "HIT");
+        }
+
+        Sinks.One<ResponseCache.Entry> sink = Sinks.one();
+        Mono<ResponseCache.Entry> shared = sink.asMono();
+        Mono<ResponseCache.Entry> leader = inFlight.putIfAbsent(key, shared);
+        if (leader != null) {
+            // Someone is already fetching this; if their response turns out
+            // not to be cacheable, go upstream ourselves. The write completes
+            // empty, so it is mapped to a value to keep switchIfEmpty for the
+            // no-entry case only.
+            return leader.flatMap(entry -> write(exchange, entry, "COALESCED").thenReturn(entry))
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).then(Mono.empty())))
+                    .then();
+        }
+
+        long generation = responseCache.generation();
+        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                // X-Cache is only present on our own stale fallback answers
+                if (getStatusCode() != HttpStatus.OK || getHeaders().containsKey("X-Cache")) {
+                    sink.tryEmitEmpty();
+                    return super.writeWith(body);
+                }
+                if (getHeaders().getContentLength() > maxBodyBytes) {
+                    sink.tryEmitEmpty();
+                    return super.writeWith(body);
+                }
+                // Chunks are held only until the body ends or passes maxBodyBytes: bufferUntil emits
+                // the first list either at completion (small body, cacheable) or on the chunk that
+                // crosses the limit, after which every chunk goes out on its own as it arrives.
+                AtomicLong seen = new AtomicLong();
+                Flux<List<DataBuffer>> chunks = Flux.<DataBuffer>from(body)
+                        .bufferUntil(buffer -> seen.addAndGet(buffer.readableByteCount()) > maxBodyBytes)
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+                return chunks.switchOnFirst((first, all) -> {
+                    if (first.isOnError()) {
+                        sink.tryEmitEmpty();
+                        return Mono.<Void>error(first.getThrowable());
+                    }
+                    if (seen.get() > maxBodyBytes) {
+                        sink.tryEmitEmpty();
+                        return getDelegate().writeWith(all.concatMapIterable(list -> list));
+                    }
+                    byte[] bytes = drain(first.hasValue() ? first.get() : Collections.emptyList());
+                    String etag = getHeaders().getETag();
+                    MediaType contentType = getHeaders().getContentType();
+                    ResponseCache.Entry entry = responseCache.put(key, HttpStatus.OK,
+                            contentType == null ? null : contentType.toString(),
+                            etag != null ? etag : etagOf(bytes), bytes, generation);
+                    sink.tryEmitValue(entry);
+                    return writeBody(exchange, getDelegate(), entry, "MISS");
+                }).then();
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    sink.tryEmitEmpty();
+                    inFlight.remove(key, shared);
+                });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseCache.Entry entry, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(entry.getStatus());
+        if (entry.getContentType() != null) {
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, entry.getContentType());
+        }
+        return writeBody(exchange, response, entry, cacheStatus);
+    }
+
+    private Mono<Void> writeBody(ServerWebExchange exchange, ServerHttpResponse response,
+                                 ResponseCache.Entry entry, String cacheStatus) {
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(entry.getEtag());
+        headers.set("X-Cache", cacheStatus);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(entry.getEtag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        headers.setContentLength(entry.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.getBody())));
+    }
+
+    // Copies the chunks into one array and releases them
+    private static byte[] drain(List<DataBuffer> buffers) {
+        int length = 0;
+        for (DataBuffer buffer : buffers) {
+            length += buffer.readableByteCount();
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int count = buffer.readableByteCount();
+            buffer.read(bytes, offset, count);
+            offset += count;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+
+    private String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query == null ? request.getPath().value() : request.getPath().value() + "?" + query;
+    }
+
+    private String etagOf(byte[] body) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        byte[] digest = sha256.digest(body);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+    }
+}
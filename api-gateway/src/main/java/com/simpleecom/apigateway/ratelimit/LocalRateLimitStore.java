@@ -0,0 +1,62 @@
+package com.simpleecom.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets in local memory, one AtomicLong per key and no locks. Each
+ * bucket is stored as its "theoretical arrival time" (the generic cell rate
+ * algorithm): the instant at which the bucket would be full again. Taking a
+ * token pushes that instant forward by one refill interval, and the request is
+ * refused if it would move more than a full bucket's worth into the future.
+ * This is exactly a token bucket, updated with a single compare-and-set.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public LocalRateLimitStore(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public Mono<Long> tryConsume(String key, RateLimitProperties.Budget budget) {
+        return Mono.just(consume(key, budget, System.nanoTime()));
+    }
+
+    long consume(String key, RateLimitProperties.Budget budget, long now) {
+        if (budget.getRefillPerSecond() <= 0 || budget.getCapacity() <= 0) {
+            return 0;
+        }
+        long interval = (long) (1_000_000_000L / budget.getRefillPerSecond());
+        long burst = interval * budget.getCapacity();
+
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            long ahead = next - now;
+            if (ahead > burst) {
+                return Math.max(1, (ahead - burst) / 1_000_000L);
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A bucket whose arrival time has passed is full again, so forgetting it changes nothing
+    private void sweep(long now) {
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() <= now);
+    }
+}
@@ -0,0 +1,15 @@
+package com.simpleecom.apigateway.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimitStore.class)
+    public RateLimitStore localRateLimitStore(RateLimitProperties properties) {
+        return new LocalRateLimitStore(properties.getMaxKeys());
+    }
+}
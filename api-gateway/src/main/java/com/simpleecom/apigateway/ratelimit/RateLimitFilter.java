@@ -0,0 +1,83 @@
+package com.simpleecom.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Admission control in front of every route. Each client gets a token bucket
+ * per route, sized by gateway.rate-limit.routes.<route-id> (or the default
+ * budget); a request without a token is answered with 429 and Retry-After and
+ * never reaches a backend. Clients are identified by their authenticated user
+ * when the gateway knows it, otherwise by address.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    // Set by whichever filter authenticates the caller
+    public static final String SUBJECT_ATTR = RateLimitFilter.class.getName() + ".subject";
+
+    public static final int ORDER = -50;
+
+    private final RateLimitProperties properties;
+    private final RateLimitStore store;
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimitStore store) {
+        this.properties = properties;
+        this.store = store;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled() || exchange.getRequest().getMethod() == HttpMethod.OPTIONS) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? null : route.getId();
+        String key = (routeId == null ? "-" : routeId) + "|" + clientKey(exchange);
+
+        return store.tryConsume(key, properties.budgetFor(routeId)).flatMap(waitMs -> {
+            if (waitMs == 0) {
+                return chain.filter(exchange);
+            }
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf((waitMs + 999) / 1000));
+            return response.setComplete();
+        });
+    }
+
+    private String clientKey(ServerWebExchange exchange) {
+        String subject = exchange.getAttribute(SUBJECT_ATTR);
+        if (subject != null) {
+            return "user:" + subject;
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeaders().getFirst("X-Forwarded-For");
+            if (StringUtils.hasText(forwarded)) {
+                return "ip:" + forwarded.split(",")[0].trim();
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return "ip:" + (remote == null || remote.getAddress() == null ? "unknown" : remote.getAddress().getHostAddress());
+    }
+}
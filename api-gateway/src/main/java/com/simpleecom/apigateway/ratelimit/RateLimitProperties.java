@@ -0,0 +1,101 @@
+package com.simpleecom.apigateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Only honour X-Forwarded-For when the gateway sits behind a trusted proxy
+    private boolean trustForwardedFor = false;
+
+    // Upper bound on tracked client keys before idle buckets are swept
+    private int maxKeys = 100000;
+
+    private Budget defaultBudget = new Budget(100, 50);
+
+    // Keyed by route id from spring.cloud.gateway.routes
+    private Map<String, Budget> routes = new HashMap<>();
+
+    public Budget budgetFor(String routeId) {
+        Budget budget = routeId == null ? null : routes.get(routeId);
+        return budget == null ? defaultBudget : budget;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isTrustForwardedFor() {
+        return trustForwardedFor;
+    }
+
+    public void setTrustForwardedFor(boolean trustForwardedFor) {
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public Budget getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(Budget defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public Map<String, Budget> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Budget> routes) {
+        this.routes = routes;
+    }
+
+    public static class Budget {
+        // Largest burst a client may send at once
+        private int capacity;
+        // Sustained requests per second
+        private double refillPerSecond;
+
+        public Budget() {
+        }
+
+        public Budget(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.simpleecom.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Where token buckets live. The default keeps them in this gateway's memory;
+ * a shared implementation (Redis, Hazelcast, ...) can be registered as a bean
+ * to enforce one budget across several gateway instances.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token for the key. Emits 0 when the request is allowed,
+     * otherwise the number of milliseconds until a token will be available.
+     */
+    Mono<Long> tryConsume(String key, RateLimitProperties.Budget budget);
+}
@@ -0,0 +1,120 @@
+package com.simpleecom.apigateway.security;
+
+import com.simpleecom.apigateway.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the caller's bearer token at the edge and replaces it with a
+ * signed X-Auth-Identity header, so downstream services check one HMAC
+ * instead of re-verifying the JWT. Any X-Auth-* header sent by the client is
+ * dropped first so identities cannot be injected from outside. Invalid tokens
+ * are removed and the request continues anonymously, as the services already
+ * treat them.
+ */
+@Component
+public class AuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String IDENTITY_HEADER = "X-Auth-Identity";
+
+    // Ahead of rate limiting, which keys on the verified subject
+    public static final int ORDER = RateLimitFilter.ORDER - 50;
+
+    private final TokenVerifier tokenVerifier;
+    private final boolean stripAuthorization;
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
+    private final Tracer tracer;
+
+    public AuthenticationFilter(TokenVerifier tokenVerifier,
+                                @Value("${gateway.identity.strip-authorization:true}") boolean stripAuthorization,
+                                MeterRegistry registry,
+                                Tracer tracer) {
+        this.tokenVerifier = tokenVerifier;
+        this.stripAuthorization = stripAuthorization;
+        this.verifyValid = verifyTimer(registry, "valid");
+        this.verifyInvalid = verifyTimer(registry, "invalid");
+        this.tracer = tracer;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HttpHeaders incoming = exchange.getRequest().getHeaders();
+        String authorization = incoming.getFirst(HttpHeaders.AUTHORIZATION);
+        boolean spoofed = incoming.keySet().stream().anyMatch(name -> name.regionMatches(true, 0, "X-Auth-", 0, 7));
+        if (authorization == null && !spoofed) {
+            return chain.filter(exchange);
+        }
+
+        GatewayIdentity identity = authorization != null && authorization.startsWith("Bearer ")
+                ? verify(exchange, authorization.substring(7))
+                : null;
+        if (identity != null) {
+            exchange.getAttributes().put(RateLimitFilter.SUBJECT_ATTR, identity.getSubject());
+        }
+
+        ServerHttpRequest request = exchange.getRequest().mutate().headers(headers -> {
+            headers.keySet().removeIf(name -> name.regionMatches(true, 0, "X-Auth-", 0, 7));
+            if (identity != null) {
+                headers.set(IDENTITY_HEADER, identity.getHeader());
+            }
+            if (stripAuthorization || identity == null) {
+                headers.remove(HttpHeaders.AUTHORIZATION);
+            }
+        }).build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    private GatewayIdentity verify(ServerWebExchange exchange, String token) {
+        Span span = verifySpan(exchange);
+        long start = System.nanoTime();
+        GatewayIdentity identity = tokenVerifier.verify(token);
+        (identity != null ? verifyValid : verifyInvalid).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (span != null) {
+            span.tag("result", identity != null ? "valid" : "invalid");
+            span.end();
+        }
+        return identity;
+    }
+
+    // Child of the server span Sleuth's TraceWebFilter keeps on the exchange;
+    // null when the request is not sampled
+    private Span verifySpan(ServerWebExchange exchange) {
+        Span parent = exchange.getAttribute(Span.class.getName());
+        if (parent == null || !Boolean.TRUE.equals(parent.context().sampled())) {
+            return null;
+        }
+        return tracer.nextSpan(parent).name("verify-token").start();
+    }
+
+    // Same meter the services use for their own checks, see TokenVerificationMetrics there
+    private static Timer verifyTimer(MeterRegistry registry, String result) {
+        return Timer.builder("auth.token.verify")
+                .description("Time to verify the caller's credentials")
+                .tag("source", "jwt")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1000))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(registry);
+    }
+}
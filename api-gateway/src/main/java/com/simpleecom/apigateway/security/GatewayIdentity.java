@@ -0,0 +1,30 @@
+package com.simpleecom.apigateway.security;
+
+/**
+ * A verified caller together with the signed X-Auth-Identity header value
+ * that is forwarded for them.
+ */
+public class GatewayIdentity {
+
+    private final String subject;
+    private final String header;
+    private final long expiresAt;
+
+    public GatewayIdentity(String subject, String header, long expiresAt) {
+        this.subject = subject;
+        this.header = header;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,151 @@
+package com.simpleecom.apigateway.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies bearer tokens once at the edge and turns them into the compact
+ * identity header the services trust: base64url(JSON claims) + "." +
+ * base64url(HMAC-SHA256). Results are cached by token digest until the
+ * token expires, so a returning client costs one hash lookup. The work is
+ * pure CPU and never blocks the event loop.
+ */
+@Component
+public class TokenVerifier implements MeterBinder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final String jwtSecret;
+    private final ThreadLocal<Mac> hmac;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, GatewayIdentity> verified = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TokenVerifier(@Value("${jwt.secret}") String jwtSecret,
+                         @Value("${gateway.identity.secret}") String identitySecret,
+                         @Value("${gateway.identity.cache-max-size:10000}") int maxSize) {
+        this.jwtSecret = jwtSecret;
+        this.maxSize = maxSize;
+        SecretKeySpec key = new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.hmac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // Returns null for tokens that are malformed, forged or expired
+    public GatewayIdentity verify(String token) {
+        String key = digest(token);
+        GatewayIdentity identity = verified.get(key);
+        long now = System.currentTimeMillis();
+        if (identity != null) {
+            if (identity.getExpiresAt() > now) {
+                hits.increment();
+                return identity;
+            }
+            verified.remove(key, identity);
+        }
+        misses.increment();
+
+        Claims claims;
+        try {
+            claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            return null;
+        }
+
+        Object roles = claims.get("roles");
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sub", claims.getSubject());
+        payload.put("roles", roles instanceof List ? roles : Collections.emptyList());
+        payload.put("uid", claims.get("uid"));
+        payload.put("email", claims.get("email"));
+        payload.put("exp", claims.getExpiration().getTime());
+
+        identity = new GatewayIdentity(claims.getSubject(), sign(payload), claims.getExpiration().getTime());
+        if (verified.size() >= maxSize) {
+            makeRoom(now);
+        }
+        verified.put(key, identity);
+        return identity;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "verified-tokens", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "verified-tokens", "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", verified, ConcurrentHashMap::size)
+                .tag("cache", "verified-tokens")
+                .register(registry);
+    }
+
+    private String sign(Map<String, Object> payload) {
+        try {
+            String body = Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(payload));
+            byte[] signature = hmac.get().doFinal(body.getBytes(StandardCharsets.US_ASCII));
+            return body + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void makeRoom(long now) {
+        verified.values().removeIf(identity -> identity.getExpiresAt() <= now);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (verified.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
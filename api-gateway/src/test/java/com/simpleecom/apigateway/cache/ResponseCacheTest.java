@@ -0,0 +1,95 @@
+package com.simpleecom.apigateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+
+    private static byte[] body(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ResponseCache.Entry put(ResponseCache cache, String key, String text, long generation) {
+        return cache.put(key, HttpStatus.OK, "application/json", "\"" + text + "\"", body(text), generation);
+    }
+
+    @Test
+    void testPutThenGetFresh() {
+        ResponseCache cache = new ResponseCache(60000, 60000, 100, 1 << 20);
+        put(cache, "/api/products", "a", cache.generation());
+
+        ResponseCache.Entry entry = cache.getFresh("/api/products");
+        assertNotNull(entry);
+        assertArrayEquals(body("a"), entry.getBody());
+        assertEquals("\"a\"", entry.getEtag());
+    }
+
+    @Test
+    void testResponseFetchedBeforeInvalidationIsNotStored() {
+        ResponseCache cache = new ResponseCache(60000, 60000, 100, 1 << 20);
+        long stamp = cache.generation();
+        cache.invalidatePrefix("/api/products");
+
+        ResponseCache.Entry entry = put(cache, "/api/products/1", "old", stamp);
+
+        // The caller still gets the entry to answer with, but it is not cached
+        assertArrayEquals(body("old"), entry.getBody());
+        assertNull(cache.getFresh("/api/products/1"));
+        assertNull(cache.getStale("/api/products/1"));
+    }
+
+    @Test
+    void testInvalidationOnlyDropsItsPrefix() {
+        ResponseCache cache = new ResponseCache(60000, 60000, 100, 1 << 20);
+        put(cache, "/api/products/1", "p", cache.generation());
+        put(cache, "/api/other", "o", cache.generation());
+
+        cache.invalidatePrefix("/api/products");
+
+        assertNull(cache.getFresh("/api/products/1"));
+        assertNotNull(cache.getFresh("/api/other"));
+    }
+
+    @Test
+    void testExpiredEntryIsStillServedStale() {
+        ResponseCache cache = new ResponseCache(0, 60000, 100, 1 << 20);
+        put(cache, "/api/products", "a", cache.generation());
+
+        assertNull(cache.getFresh("/api/products"));
+        assertNotNull(cache.getStale("/api/products"));
+    }
+
+    @Test
+    void testEntryLimitEvicts() {
+        ResponseCache cache = new ResponseCache(60000, 60000, 2, 1 << 20);
+        put(cache, "/a", "a", cache.generation());
+        put(cache, "/b", "b", cache.generation());
+        put(cache, "/c", "c", cache.generation());
+
+        int kept = 0;
+        for (String key : new String[]{"/a", "/b", "/c"}) {
+            if (cache.getFresh(key) != null) {
+                kept++;
+            }
+        }
+        assertEquals(2, kept);
+        assertNotNull(cache.getFresh("/c"));
+    }
+
+    @Test
+    void testByteLimitEvicts() {
+        ResponseCache cache = new ResponseCache(60000, 60000, 100, 10);
+        put(cache, "/a", "123456", cache.generation());
+        put(cache, "/b", "7890ab", cache.generation());
+
+        assertNull(cache.getFresh("/a"));
+        assertNotNull(cache.getFresh("/b"));
+    }
+}
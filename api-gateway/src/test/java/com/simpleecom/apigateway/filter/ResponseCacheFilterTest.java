@@ -0,0 +1,150 @@
+package com.simpleecom.apigateway.filter;
+
+import com.simpleecom.apigateway.cache.ResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheFilterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ResponseCache cache = new ResponseCache(60000, 60000, 100, 1 << 20);
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private ResponseCacheFilter filter(int maxBodyBytes) {
+        return new ResponseCacheFilter(cache, "/api/products", Arrays.asList("/api/products/export"), maxBodyBytes);
+    }
+
+    // Answers 200 with the given chunks once the gate opens
+    private GatewayFilterChain upstream(Mono<Void> gate, String... chunks) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            Flux<DataBuffer> body = Flux.fromArray(chunks).map(chunk ->
+                    DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+            return gate.then(exchange.getResponse().writeWith(body));
+        };
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().block(TIMEOUT);
+    }
+
+    @Test
+    void testMissThenHit() {
+        ResponseCacheFilter filter = filter(1024);
+        GatewayFilterChain chain = upstream(Mono.empty(), "[1,", "2]");
+
+        MockServerWebExchange first = get("/api/products?page=0");
+        filter.filter(first, chain).block(TIMEOUT);
+        MockServerWebExchange second = get("/api/products?page=0");
+        filter.filter(second, chain).block(TIMEOUT);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("[1,2]", body(first));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("[1,2]", body(second));
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneUpstreamCall() {
+        ResponseCacheFilter filter = filter(1024);
+        Sinks.Empty<Void> gate = Sinks.empty();
+        GatewayFilterChain chain = upstream(gate.asMono(), "{\"id\":1}");
+
+        MockServerWebExchange leader = get("/api/products/1");
+        CompletableFuture<Void> leading = filter.filter(leader, chain).toFuture();
+        MockServerWebExchange follower = get("/api/products/1");
+        CompletableFuture<Void> following = filter.filter(follower, chain).toFuture();
+        gate.tryEmitEmpty();
+        leading.join();
+        following.join();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("COALESCED", follower.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("{\"id\":1}", body(follower));
+        assertEquals("{\"id\":1}", body(leader));
+    }
+
+    @Test
+    void testMatchingEtagGetsNotModified() {
+        ResponseCacheFilter filter = filter(1024);
+        GatewayFilterChain chain = upstream(Mono.empty(), "[]");
+        MockServerWebExchange first = get("/api/products");
+        filter.filter(first, chain).block(TIMEOUT);
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidate = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag));
+        filter.filter(revalidate, chain).block(TIMEOUT);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidate.getResponse().getStatusCode());
+        assertEquals("", body(revalidate));
+    }
+
+    @Test
+    void testOversizedBodyStreamsThroughUncached() {
+        ResponseCacheFilter filter = filter(8);
+        GatewayFilterChain chain = upstream(Mono.empty(), "12345", "67890", "abcde");
+
+        MockServerWebExchange first = get("/api/products");
+        filter.filter(first, chain).block(TIMEOUT);
+        MockServerWebExchange second = get("/api/products");
+        filter.filter(second, chain).block(TIMEOUT);
+
+        assertEquals("1234567890abcde", body(first));
+        assertFalse(first.getResponse().getHeaders().containsKey("X-Cache"));
+        assertEquals(2, upstreamCalls.get());
+        assertNull(cache.getStale("/api/products"));
+    }
+
+    @Test
+    void testWriteDropsCachedEntries() {
+        ResponseCacheFilter filter = filter(1024);
+        GatewayFilterChain chain = upstream(Mono.empty(), "[]");
+        filter.filter(get("/api/products"), chain).block(TIMEOUT);
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/api/products")), chain).block(TIMEOUT);
+        filter.filter(get("/api/products"), chain).block(TIMEOUT);
+
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void testExcludedPathsBypassTheCache() {
+        ResponseCacheFilter filter = filter(1024);
+        GatewayFilterChain chain = upstream(Mono.empty(), "a,b");
+
+        filter.filter(get("/api/products/export"), chain).block(TIMEOUT);
+        filter.filter(get("/api/products/export"), chain).block(TIMEOUT);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+}
@@ -0,0 +1,124 @@
+package com.simpleecom.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocalRateLimitStoreTest {
+
+    private static final long MS = 1_000_000L;
+    private static final long T0 = 1_000_000 * MS;
+
+    // Three tokens, one back every 100 ms
+    private final RateLimitProperties.Budget budget = new RateLimitProperties.Budget(3, 10);
+
+    @Test
+    void testNewBucketStartsFull() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100);
+
+        assertEquals(0, store.consume("k", budget, T0));
+        assertEquals(0, store.consume("k", budget, T0));
+        assertEquals(0, store.consume("k", budget, T0));
+        assertEquals(100, store.consume("k", budget, T0));
+    }
+
+    @Test
+    void testTokensComeBackAtTheRefillRate() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100);
+        for (int i = 0; i < 3; i++) {
+            store.consume("k", budget, T0);
+        }
+
+        assertEquals(60, store.consume("k", budget, T0 + 40 * MS));
+        assertEquals(0, store.consume("k", budget, T0 + 100 * MS));
+        assertEquals(100, store.consume("k", budget, T0 + 100 * MS));
+        // A long pause refills the bucket but never beyond its capacity
+        long later = T0 + 10_000 * MS;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, store.consume("k", budget, later));
+        }
+        assertEquals(100, store.consume("k", budget, later));
+    }
+
+    @Test
+    void testRefusedRequestsDoNotUseTokens() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100);
+        for (int i = 0; i < 3; i++) {
+            store.consume("k", budget, T0);
+        }
+        for (int i = 0; i < 10; i++) {
+            store.consume("k", budget, T0 + 50 * MS);
+        }
+
+        assertEquals(0, store.consume("k", budget, T0 + 100 * MS));
+    }
+
+    @Test
+    void testKeysHaveSeparateBuckets() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100);
+        for (int i = 0; i < 3; i++) {
+            store.consume("a", budget, T0);
+        }
+
+        assertEquals(0, store.consume("b", budget, T0));
+    }
+
+    @Test
+    void testDisabledBudgetAlwaysAllows() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100);
+        RateLimitProperties.Budget disabled = new RateLimitProperties.Budget(0, 10);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, store.consume("k", disabled, T0));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFullBucketsAreForgottenWhenKeysRunOut() {
+        LocalRateLimitStore store = new LocalRateLimitStore(2);
+        store.consume("a", budget, T0);
+        store.consume("b", budget, T0);
+
+        store.consume("c", budget, T0 + 1_000 * MS);
+
+        Map<String, ?> buckets = (Map<String, ?>) ReflectionTestUtils.getField(store, "buckets");
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    void testConcurrentCallersShareOneBudget() throws Exception {
+        LocalRateLimitStore store = new LocalRateLimitStore(100);
+        RateLimitProperties.Budget large = new RateLimitProperties.Budget(500, 1);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 200; i++) {
+                    if (store.consume("k", large, T0) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        assertEquals(500, allowed.get());
+    }
+}
@@ -0,0 +1,85 @@
+package com.simpleecom.benchmarks;
+
+import com.simpleecom.cartservice.model.CartItem;
+import com.simpleecom.productservice.model.Product;
+import com.simpleecom.userservice.model.Role;
+import com.simpleecom.userservice.model.User;
+import com.simpleecom.userservice.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Test data and in-memory stand-ins shared by the benchmarks. Values mirror
+ * what the services see in practice: application.yml secrets, the roles
+ * RoleDataInitializer seeds, and product/cart rows shaped like real ones.
+ */
+final class Fixtures {
+
+    static final String JWT_SECRET = "mySecretKey1234567890";
+    static final String IDENTITY_SECRET = "myIdentitySecret1234567890";
+
+    private static final String[] CATEGORIES = {"electronics", "home", "books", "clothing", "sports"};
+
+    private Fixtures() {
+    }
+
+    static User user(long id, String... roleNames) {
+        User user = new User("user" + id, "user" + id + "@example.com",
+                "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BW3Ff0GvQnY1mXfQZbEQ4ZmE8G2e");
+        user.setId(id);
+        long roleId = 1;
+        for (String roleName : roleNames) {
+            user.getRoles().add(new Role(roleId++, roleName));
+        }
+        return user;
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = 1000L + i;
+            products.add(new Product(id, "Product " + id,
+                    "A reasonably descriptive blurb for product " + id + ", about as long as the seeded catalog uses.",
+                    9.99 + i % 500, 25 + i % 100, "admin", "https://cdn.example.com/images/" + id + ".jpg",
+                    CATEGORIES[i % CATEGORIES.length]));
+        }
+        return products;
+    }
+
+    static List<CartItem> cartItems(int count) {
+        List<CartItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new CartItem((long) i + 1, "user1", 1000L + i, 1 + i % 3, 9.99 + i % 500));
+        }
+        return items;
+    }
+
+    /**
+     * UserRepository backed by a map, answering only the finders the
+     * security path calls; anything else is a programming error here.
+     */
+    static UserRepository userRepository(User... users) {
+        Map<String, User> byUsername = new ConcurrentHashMap<>();
+        for (User user : users) {
+            byUsername.put(user.getUsername(), user);
+        }
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByUsername":
+                            return Optional.ofNullable(byUsername.get((String) args[0]));
+                        case "findEnabledByUsername":
+                            return Optional.ofNullable(byUsername.get((String) args[0])).map(User::isEnabled);
+                        case "toString":
+                            return "InMemoryUserRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
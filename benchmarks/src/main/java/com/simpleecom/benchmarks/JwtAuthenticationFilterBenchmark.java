@@ -0,0 +1,116 @@
+package com.simpleecom.benchmarks;
+
+import com.simpleecom.common.security.IdentityHeaderVerifier;
+import com.simpleecom.common.security.TokenVerificationMetrics;
+import com.simpleecom.userservice.model.User;
+import com.simpleecom.userservice.repository.UserRepository;
+import com.simpleecom.userservice.security.JwtAuthenticationFilter;
+import com.simpleecom.userservice.security.JwtUtil;
+import com.simpleecom.userservice.service.UserDetailsImpl;
+import com.simpleecom.userservice.service.UserDetailsServiceImpl;
+import com.simpleecom.userservice.service.UserStatusCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full pass through user-service's JwtAuthenticationFilter for one
+ * authenticated request:
+ * - identity: the gateway-signed X-Auth-Identity header (one HMAC),
+ * - bearer: HS512 token, principal built from its claims,
+ * - bearerDatabase: HS512 token with stateless auth off, so the principal is
+ *   loaded through UserDetailsServiceImpl (against an in-memory repository).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"identity", "bearer", "bearerDatabase"})
+    public String credentials;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        User user = Fixtures.user(1, "ROLE_USER");
+        UserRepository userRepository = Fixtures.userRepository(user);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", Fixtures.JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 86400000);
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "userStatusCache", new UserStatusCache(userRepository, 30000, 10000));
+        ReflectionTestUtils.setField(filter, "identityVerifier",
+                new IdentityHeaderVerifier(true, Fixtures.IDENTITY_SECRET));
+        ReflectionTestUtils.setField(filter, "verificationMetrics", new TokenVerificationMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "statelessAuth", !"bearerDatabase".equals(credentials));
+
+        request = new MockHttpServletRequest("GET", "/api/users/me");
+        response = new MockHttpServletResponse();
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        if ("identity".equals(credentials)) {
+            request.addHeader(IdentityHeaderVerifier.HEADER, identityHeader(principal));
+        } else {
+            Authentication login = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            request.addHeader("Authorization", "Bearer " + jwtUtil.generateJwtToken(login));
+        }
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new IllegalStateException("Request was not authenticated");
+        }
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    // Same format api-gateway's TokenVerifier produces
+    private static String identityHeader(UserDetailsImpl principal) throws Exception {
+        String json = "{\"sub\":\"" + principal.getUsername() + "\",\"roles\":[\"USER\"],\"uid\":" + principal.getId()
+                + ",\"email\":\"" + principal.getEmail() + "\",\"exp\":" + (System.currentTimeMillis() + 3600000L) + "}";
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = encoder.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Fixtures.IDENTITY_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return payload + "." + encoder.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
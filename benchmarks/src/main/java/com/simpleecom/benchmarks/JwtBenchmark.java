@@ -0,0 +1,67 @@
+package com.simpleecom.benchmarks;
+
+import com.simpleecom.userservice.security.JwtUtil;
+import com.simpleecom.userservice.service.UserDetailsImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * user-service JwtUtil: HS512 verification of a valid token, rejection of a
+ * token with a bad signature, and issuing a token at login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private Authentication authentication;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", Fixtures.JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 86400000);
+
+        UserDetailsImpl principal = UserDetailsImpl.build(Fixtures.user(1, "ROLE_USER", "ROLE_ADMIN"));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        validToken = jwtUtil.generateJwtToken(authentication);
+
+        char last = validToken.charAt(validToken.length() - 2);
+        tamperedToken = validToken.substring(0, validToken.length() - 2)
+                + (last == 'A' ? 'B' : 'A') + validToken.charAt(validToken.length() - 1);
+    }
+
+    @Benchmark
+    public boolean validateValidToken() {
+        return jwtUtil.validateJwtToken(validToken);
+    }
+
+    @Benchmark
+    public boolean validateTamperedToken() {
+        return jwtUtil.validateJwtToken(tamperedToken);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateJwtToken(authentication);
+    }
+}
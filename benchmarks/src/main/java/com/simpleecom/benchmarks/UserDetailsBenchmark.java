@@ -0,0 +1,48 @@
+package com.simpleecom.benchmarks;
+
+import com.simpleecom.userservice.model.User;
+import com.simpleecom.userservice.service.UserDetailsImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserDetailsImpl.build, run for every database-backed principal lookup
+ * (login and the non-stateless filter path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsBenchmark {
+
+    @Param({"1", "4"})
+    public int roles;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        String[] names = {"ROLE_USER", "ROLE_ADMIN", "ROLE_SUPPORT", "ROLE_AUDITOR"};
+        String[] granted = new String[roles];
+        System.arraycopy(names, 0, granted, 0, roles);
+        user = Fixtures.user(1, granted);
+    }
+
+    @Benchmark
+    public UserDetailsImpl build() {
+        return UserDetailsImpl.build(user);
+    }
+}
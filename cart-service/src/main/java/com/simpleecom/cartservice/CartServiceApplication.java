@@ -3,9 +3,11 @@ package com.simpleecom.cartservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"com.simpleecom.cartservice", "com.simpleecom.common"})
 @EnableDiscoveryClient
+@EnableScheduling
 public class CartServiceApplication {
 
     public static void main(String[] args) {
@@ -1,10 +1,12 @@
 package com.simpleecom.cartservice.controller;
 
 import com.simpleecom.cartservice.model.CartItem;
+import com.simpleecom.cartservice.payload.CartMutation;
 import com.simpleecom.cartservice.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -31,4 +33,50 @@ public class CartController {
         }
         return ResponseEntity.ok(cartItems);
     }
+
+    @GetMapping
+    public ResponseEntity<List<CartItem>> getCart(Authentication authentication) {
+        return ResponseEntity.ok(cartService.getCartItemsByUsername(authentication.getName()));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<?> addItem(Authentication authentication, @RequestBody CartMutation item) {
+        try {
+            return ResponseEntity.ok(cartService.addItem(authentication.getName(),
+                    item.getProductId(), item.getQuantity(), item.getPrice()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<?> setQuantity(Authentication authentication, @PathVariable Long productId,
+                                         @RequestBody CartMutation item) {
+        try {
+            return ResponseEntity.ok(cartService.setQuantity(authentication.getName(),
+                    productId, item.getQuantity(), item.getPrice()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<List<CartItem>> removeItem(Authentication authentication, @PathVariable Long productId) {
+        return ResponseEntity.ok(cartService.removeItem(authentication.getName(), productId));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<String> clearCart(Authentication authentication) {
+        cartService.clearCart(authentication.getName());
+        return ResponseEntity.ok("Cart cleared");
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(Authentication authentication, @RequestBody List<CartMutation> mutations) {
+        try {
+            return ResponseEntity.ok(cartService.applyMutations(authentication.getName(), mutations));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
 }
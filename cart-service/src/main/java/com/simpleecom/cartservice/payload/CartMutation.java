@@ -0,0 +1,68 @@
+package com.simpleecom.cartservice.payload;
+
+/**
+ * One line change applied to a user's cart. ADD increments the quantity of a
+ * line (creating it if needed), SET overwrites it (zero or less removes the
+ * line), SUBTRACT takes up to the given quantity off a line (dropping it at
+ * zero), REMOVE drops the line and CLEAR empties the whole cart.
+ */
+public class CartMutation {
+
+    public enum Op {
+        ADD,
+        SET,
+        SUBTRACT,
+        REMOVE,
+        CLEAR
+    }
+
+    private Op op;
+
+    private Long productId;
+
+    private int quantity;
+
+    private Double price;
+
+    public CartMutation() {
+    }
+
+    public CartMutation(Op op, Long productId, int quantity, Double price) {
+        this.op = op;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    public void setOp(Op op) {
+        this.op = op;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+}
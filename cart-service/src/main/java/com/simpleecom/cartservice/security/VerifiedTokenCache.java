@@ -0,0 +1,125 @@
+package com.simpleecom.cartservice.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers tokens whose signature has already been checked, keyed by a
+ * SHA-256 digest of the token, so repeat requests skip the HS512 parse.
+ * Entries never outlive the token's own expiry and the map is capped at
+ * jwt.cache.max-size.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public VerifiedToken get(String token) {
+        String key = digest(token);
+        VerifiedToken verified = entries.get(key);
+        if (verified == null) {
+            misses.increment();
+            return null;
+        }
+        if (verified.getExpiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, verified);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return verified;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (verified.getExpiresAt() <= System.currentTimeMillis()) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(digest(token), verified);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "verified-tokens", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "verified-tokens", "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", entries, ConcurrentHashMap::size)
+                .tag("cache", "verified-tokens")
+                .register(registry);
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(verified -> verified.getExpiresAt() <= now);
+        // Still full of live tokens: drop arbitrary entries, they will simply be re-verified
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static class VerifiedToken {
+        private final String username;
+        private final List<SimpleGrantedAuthority> authorities;
+        private final long expiresAt;
+
+        public VerifiedToken(String username, List<SimpleGrantedAuthority> authorities, long expiresAt) {
+            this.username = username;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public List<SimpleGrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
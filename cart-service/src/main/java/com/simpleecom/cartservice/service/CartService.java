@@ -1,19 +1,130 @@
 package com.simpleecom.cartservice.service;
 
 import com.simpleecom.cartservice.model.CartItem;
-import com.simpleecom.cartservice.repository.CartRepository;
+import com.simpleecom.cartservice.payload.CartMutation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class CartService {
 
     @Autowired
-    private CartRepository cartRepository;
+    private CartWriteBuffer cartWriteBuffer;
 
     public List<CartItem> getCartItemsByUsername(String username) {
-        return cartRepository.findByUsername(username);
+        return cartWriteBuffer.getCart(username);
+    }
+
+    public List<CartItem> addItem(String username, Long productId, int quantity, Double price) {
+        return applyMutations(username, Collections.singletonList(
+                new CartMutation(CartMutation.Op.ADD, productId, quantity, price)));
+    }
+
+    public List<CartItem> setQuantity(String username, Long productId, int quantity, Double price) {
+        return applyMutations(username, Collections.singletonList(
+                new CartMutation(CartMutation.Op.SET, productId, quantity, price)));
+    }
+
+    public List<CartItem> removeItem(String username, Long productId) {
+        return applyMutations(username, Collections.singletonList(
+                new CartMutation(CartMutation.Op.REMOVE, productId, 0, null)));
+    }
+
+    public void clearCart(String username) {
+        applyMutations(username, Collections.singletonList(
+                new CartMutation(CartMutation.Op.CLEAR, null, 0, null)));
+    }
+
+    /**
+     * Applies the mutations in order to the user's live cart as one atomic
+     * step. Persistence is left to CartWriteBuffer, which coalesces the
+     * touched lines into its next batched flush.
+     */
+    public List<CartItem> applyMutations(String username, List<CartMutation> mutations) {
+        for (CartMutation mutation : mutations) {
+            validate(mutation);
+        }
+        return cartWriteBuffer.update(username, lines -> apply(username, lines, mutations));
+    }
+
+    private Set<Long> apply(String username, Map<Long, CartItem> lines, List<CartMutation> mutations) {
+        Set<Long> touched = new HashSet<>();
+        for (CartMutation mutation : mutations) {
+            Long productId = mutation.getProductId();
+            switch (mutation.getOp()) {
+                case ADD: {
+                    CartItem item = lines.get(productId);
+                    if (item == null) {
+                        item = new CartItem(null, username, productId, 0, 0.0);
+                        lines.put(productId, item);
+                    }
+                    item.setQuantity(item.getQuantity() + mutation.getQuantity());
+                    if (mutation.getPrice() != null) {
+                        item.setPrice(mutation.getPrice());
+                    }
+                    touched.add(productId);
+                    break;
+                }
+                case SET: {
+                    if (mutation.getQuantity() <= 0) {
+                        lines.remove(productId);
+                        touched.add(productId);
+                        break;
+                    }
+                    CartItem item = lines.get(productId);
+                    if (item == null) {
+                        item = new CartItem(null, username, productId, 0, 0.0);
+                        lines.put(productId, item);
+                    }
+                    item.setQuantity(mutation.getQuantity());
+                    if (mutation.getPrice() != null) {
+                        item.setPrice(mutation.getPrice());
+                    }
+                    touched.add(productId);
+                    break;
+                }
+                case SUBTRACT: {
+                    CartItem item = lines.get(productId);
+                    if (item == null) {
+                        break;
+                    }
+                    if (item.getQuantity() <= mutation.getQuantity()) {
+                        lines.remove(productId);
+                    } else {
+                        item.setQuantity(item.getQuantity() - mutation.getQuantity());
+                    }
+                    touched.add(productId);
+                    break;
+                }
+                case REMOVE:
+                    lines.remove(productId);
+                    touched.add(productId);
+                    break;
+                case CLEAR:
+                    touched.addAll(lines.keySet());
+                    lines.clear();
+                    break;
+            }
+        }
+        return touched;
+    }
+
+    private void validate(CartMutation mutation) {
+        if (mutation == null || mutation.getOp() == null) {
+            throw new IllegalArgumentException("Each mutation needs an op");
+        }
+        if (mutation.getOp() != CartMutation.Op.CLEAR && mutation.getProductId() == null) {
+            throw new IllegalArgumentException(mutation.getOp() + " needs a productId");
+        }
+        if ((mutation.getOp() == CartMutation.Op.ADD || mutation.getOp() == CartMutation.Op.SUBTRACT)
+                && mutation.getQuantity() <= 0) {
+            throw new IllegalArgumentException(mutation.getOp() + " needs a positive quantity");
+        }
     }
 }
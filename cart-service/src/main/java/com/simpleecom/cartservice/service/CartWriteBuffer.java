@@ -0,0 +1,217 @@
+package com.simpleecom.cartservice.service;
+
+import com.simpleecom.cartservice.model.CartItem;
+import com.simpleecom.cartservice.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Keeps each active user's cart in memory and writes it behind to
+ * simpleecom_cartdb. Mutations only mark (username, productId) lines dirty,
+ * so repeated edits to a line between flushes collapse into one row write.
+ * Dirty lines are flushed every cart.write-behind.flush-interval-ms, earlier
+ * once cart.write-behind.max-pending lines are waiting, and on shutdown.
+ *
+ * The buffer is the source of truth for carts it holds, so requests for a
+ * given user must reach the same cart-service instance. api-gateway and
+ * order-service route cart-service by user for that reason; see the README
+ * before scaling it.
+ */
+@Component
+public class CartWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartWriteBuffer.class);
+
+    private static final String UPSERT_SQL = "INSERT INTO cart_item (username, product_id, quantity, price) "
+            + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), price = VALUES(price)";
+    private static final String DELETE_SQL = "DELETE FROM cart_item WHERE username = ? AND product_id = ?";
+
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPending;
+    private final long idleEvictMs;
+
+    private final ConcurrentHashMap<String, LiveCart> carts = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public CartWriteBuffer(CartRepository cartRepository,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${cart.write-behind.max-pending:5000}") int maxPending,
+                           @Value("${cart.write-behind.idle-evict-ms:600000}") long idleEvictMs) {
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPending = maxPending;
+        this.idleEvictMs = idleEvictMs;
+    }
+
+    public List<CartItem> getCart(String username) {
+        while (true) {
+            LiveCart cart = load(username);
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    cart.lastAccess = System.currentTimeMillis();
+                    return cart.snapshot();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the change against the user's live cart under its lock. The change
+     * returns the product ids it touched; those lines are flushed later with
+     * whatever state they hold at flush time.
+     */
+    public List<CartItem> update(String username, Function<Map<Long, CartItem>, Set<Long>> change) {
+        List<CartItem> result;
+        while (true) {
+            LiveCart cart = load(username);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue;
+                }
+                Set<Long> touched = change.apply(cart.lines);
+                for (Long productId : touched) {
+                    if (cart.dirty.add(productId)) {
+                        pending.incrementAndGet();
+                    }
+                }
+                cart.lastAccess = System.currentTimeMillis();
+                result = cart.snapshot();
+                break;
+            }
+        }
+        if (pending.get() >= maxPending) {
+            flush();
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval-ms:250}")
+    public void scheduledFlush() {
+        flush();
+        evictIdle();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public synchronized void flush() {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Map<LiveCart, Set<Long>> taken = new LinkedHashMap<>();
+
+        for (LiveCart cart : carts.values()) {
+            synchronized (cart) {
+                if (cart.dirty.isEmpty()) {
+                    continue;
+                }
+                for (Long productId : cart.dirty) {
+                    CartItem line = cart.lines.get(productId);
+                    if (line == null) {
+                        deletes.add(new Object[]{cart.username, productId});
+                    } else {
+                        upserts.add(new Object[]{cart.username, productId, line.getQuantity(), line.getPrice()});
+                    }
+                }
+                taken.put(cart, new HashSet<>(cart.dirty));
+                pending.addAndGet(-cart.dirty.size());
+                cart.dirty.clear();
+            }
+        }
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!deletes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+                }
+                if (!upserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Cart flush failed, retrying {} lines on next flush: {}",
+                    upserts.size() + deletes.size(), e.getMessage());
+            // Lines are written from current state, so re-marking them is enough
+            for (Map.Entry<LiveCart, Set<Long>> entry : taken.entrySet()) {
+                LiveCart cart = entry.getKey();
+                synchronized (cart) {
+                    for (Long productId : entry.getValue()) {
+                        if (cart.dirty.add(productId)) {
+                            pending.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Same monitor as flush(): a cart whose lines are mid-flush must stay mapped
+    // so a failed flush can mark them dirty again
+    private synchronized void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMs;
+        for (LiveCart cart : carts.values()) {
+            synchronized (cart) {
+                if (cart.dirty.isEmpty() && cart.lastAccess < cutoff) {
+                    cart.evicted = true;
+                    carts.remove(cart.username, cart);
+                }
+            }
+        }
+    }
+
+    private LiveCart load(String username) {
+        return carts.computeIfAbsent(username, name -> {
+            LiveCart cart = new LiveCart(name);
+            for (CartItem item : cartRepository.findByUsername(name)) {
+                cart.lines.put(item.getProductId(), item);
+            }
+            return cart;
+        });
+    }
+
+    private static class LiveCart {
+        private final String username;
+        private final Map<Long, CartItem> lines = new LinkedHashMap<>();
+        private final Set<Long> dirty = new HashSet<>();
+        private long lastAccess = System.currentTimeMillis();
+        private boolean evicted;
+
+        private LiveCart(String username) {
+            this.username = username;
+        }
+
+        private List<CartItem> snapshot() {
+            List<CartItem> items = new ArrayList<>(lines.size());
+            for (CartItem line : lines.values()) {
+                items.add(new CartItem(line.getId(), line.getUsername(), line.getProductId(),
+                        line.getQuantity(), line.getPrice()));
+            }
+            return items;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.simpleecom.cartservice.service;
+
+import com.simpleecom.cartservice.model.CartItem;
+import com.simpleecom.cartservice.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartWriteBufferTest {
+
+    private CartRepository cartRepository;
+    private JdbcTemplate jdbcTemplate;
+    private CartWriteBuffer buffer;
+
+    @BeforeEach
+    void setup() {
+        cartRepository = mock(CartRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        buffer = new CartWriteBuffer(cartRepository, jdbcTemplate, mock(PlatformTransactionManager.class), 100, 600000);
+    }
+
+    private void set(String username, long productId, int quantity) {
+        buffer.update(username, lines -> {
+            lines.computeIfAbsent(productId, id -> new CartItem(null, username, id, 0, 2.5)).setQuantity(quantity);
+            return Collections.singleton(productId);
+        });
+    }
+
+    private void remove(String username, long productId) {
+        buffer.update(username, lines -> {
+            lines.remove(productId);
+            return Collections.singleton(productId);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> captured(String sqlPrefix, int flushes) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(flushes)).batchUpdate(startsWith(sqlPrefix), rows.capture());
+        return rows.getValue();
+    }
+
+    @Test
+    void testRepeatedEditsCoalesceIntoOneWrite() {
+        for (int quantity = 1; quantity <= 5; quantity++) {
+            set("alice", 7, quantity);
+        }
+
+        buffer.flush();
+
+        List<Object[]> upserts = captured("INSERT", 1);
+        assertEquals(1, upserts.size());
+        assertArrayEquals(new Object[]{"alice", 7L, 5, 2.5}, upserts.get(0));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("DELETE"), anyList());
+    }
+
+    @Test
+    void testRemovedLineIsDeleted() {
+        set("alice", 7, 1);
+        remove("alice", 7);
+
+        buffer.flush();
+
+        List<Object[]> deletes = captured("DELETE", 1);
+        assertEquals(1, deletes.size());
+        assertArrayEquals(new Object[]{"alice", 7L}, deletes.get(0));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT"), anyList());
+    }
+
+    @Test
+    void testCleanBufferDoesNotTouchTheDatabase() {
+        set("alice", 7, 1);
+        buffer.flush();
+
+        buffer.flush();
+
+        captured("INSERT", 1);
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        set("alice", 7, 1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+
+        buffer.flush();
+        set("alice", 7, 3);
+        buffer.flush();
+
+        List<Object[]> upserts = captured("INSERT", 2);
+        assertEquals(1, upserts.size());
+        assertArrayEquals(new Object[]{"alice", 7L, 3, 2.5}, upserts.get(0));
+    }
+
+    @Test
+    void testFullBufferFlushesInline() {
+        CartWriteBuffer small = new CartWriteBuffer(cartRepository, jdbcTemplate,
+                mock(PlatformTransactionManager.class), 3, 600000);
+        for (long productId = 1; productId <= 3; productId++) {
+            long id = productId;
+            small.update("bob", lines -> {
+                lines.put(id, new CartItem(null, "bob", id, 1, 1.0));
+                return Collections.singleton(id);
+            });
+        }
+
+        assertEquals(3, captured("INSERT", 1).size());
+    }
+
+    @Test
+    void testCartIsLoadedOnceAndServedFromMemory() {
+        when(cartRepository.findByUsername("carol"))
+                .thenReturn(Collections.singletonList(new CartItem(1L, "carol", 9L, 2, 4.0)));
+
+        assertEquals(2, buffer.getCart("carol").get(0).getQuantity());
+        set("carol", 9, 6);
+        List<CartItem> cart = buffer.getCart("carol");
+
+        assertEquals(1, cart.size());
+        assertEquals(6, cart.get(0).getQuantity());
+        verify(cartRepository, times(1)).findByUsername(eq("carol"));
+    }
+
+    @Test
+    void testSnapshotsAreCopies() {
+        set("dave", 1, 1);
+
+        buffer.getCart("dave").get(0).setQuantity(99);
+
+        assertEquals(1, buffer.getCart("dave").get(0).getQuantity());
+    }
+}
@@ -0,0 +1,95 @@
+package com.simpleecom.common.loadbalancer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simpleecom.common.security.IdentityHeaderVerifier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Sends every request for a given user to the same instance, picked by
+ * rendezvous hashing of the subject in the forwarded X-Auth-Identity header
+ * over the live instances. Adding or removing an instance only moves the
+ * users that hash to it. Requests without an identity go round robin.
+ *
+ * api-gateway and order-service both pick cart-service instances through
+ * this class, so a checkout reads the cart the user has been editing.
+ */
+public class UserAffinityLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final RoundRobinLoadBalancer anonymous;
+
+    public UserAffinityLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId) {
+        this.suppliers = suppliers;
+        this.anonymous = new RoundRobinLoadBalancer(suppliers, serviceId);
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        String subject = subjectOf(request);
+        if (subject == null) {
+            return anonymous.choose(request);
+        }
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> choose(instances, subject));
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, String subject) {
+        ServiceInstance best = null;
+        long bestScore = 0;
+        for (ServiceInstance instance : instances) {
+            long score = score(subject, instance);
+            if (best == null || score > bestScore) {
+                best = instance;
+                bestScore = score;
+            }
+        }
+        return best == null ? new EmptyResponse() : new DefaultResponse(best);
+    }
+
+    // Signed by the gateway and verified by the services; routing only needs the subject
+    private static String subjectOf(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext)) {
+            return null;
+        }
+        String identity = ((RequestDataContext) request.getContext()).getClientRequest().getHeaders()
+                .getFirst(IdentityHeaderVerifier.HEADER);
+        int dot = identity == null ? -1 : identity.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            JsonNode sub = MAPPER.readTree(Base64.getUrlDecoder().decode(identity.substring(0, dot))).get("sub");
+            return sub == null || !sub.isTextual() ? null : sub.asText();
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static long score(String subject, ServiceInstance instance) {
+        String id = instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+        long h = subject.hashCode() * 0x9E3779B97F4A7C15L + id.hashCode();
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,20 @@
+package com.simpleecom.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// Per-client configuration, so deliberately not a @Configuration picked up by component scanning
+public class UserAffinityLoadBalancerConfig {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> userAffinityLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory factory) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new UserAffinityLoadBalancer(factory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId);
+    }
+}
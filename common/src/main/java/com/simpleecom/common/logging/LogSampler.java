@@ -0,0 +1,40 @@
+package com.simpleecom.common.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps how often a high-volume log statement is written: at most
+ * {@code permits} events per window get through and the rest are only
+ * counted. The count is handed to the next event that does get through, so
+ * the log still shows how much was left out.
+ */
+public class LogSampler {
+
+    private final int permits;
+    private final long windowNanos;
+
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(int permits, long window, TimeUnit unit) {
+        this.permits = permits;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    // Returns -1 when the event should be dropped, otherwise how many were dropped since the last one logged
+    public long acquire() {
+        long current = System.nanoTime() / windowNanos;
+        long seen = window.get();
+        if (current != seen && window.compareAndSet(seen, current)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() > permits) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.simpleecom.common.tracing;
+
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.ClosedSenderException;
+import zipkin2.reporter.Sender;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends finished spans as Zipkin v2 JSON, one span per line, to a local
+ * file. Stands in for a collector during development and load tests; the
+ * lines can be replayed into anything that accepts Zipkin JSON, including
+ * the OpenTelemetry collector's zipkin receiver.
+ */
+public class FileSender extends Sender {
+
+    private static final int MESSAGE_MAX_BYTES = 512 * 1024;
+
+    private final OutputStream out;
+    private volatile boolean closed;
+
+    public FileSender(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.out = new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+    }
+
+    @Override
+    public Encoding encoding() {
+        return Encoding.JSON;
+    }
+
+    @Override
+    public int messageMaxBytes() {
+        return MESSAGE_MAX_BYTES;
+    }
+
+    @Override
+    public int messageSizeInBytes(List<byte[]> encodedSpans) {
+        return Encoding.JSON.listSizeInBytes(encodedSpans);
+    }
+
+    @Override
+    public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+        if (closed) {
+            throw new ClosedSenderException();
+        }
+        return new WriteCall(encodedSpans);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        out.close();
+    }
+
+    // The async reporter flushes from a single thread; the lock only guards close()
+    private synchronized void write(List<byte[]> encodedSpans) throws IOException {
+        if (closed) {
+            throw new ClosedSenderException();
+        }
+        for (byte[] span : encodedSpans) {
+            out.write(span);
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    @Override
+    public String toString() {
+        return "FileSender";
+    }
+
+    private final class WriteCall extends Call.Base<Void> {
+
+        private final List<byte[]> encodedSpans;
+
+        WriteCall(List<byte[]> encodedSpans) {
+            this.encodedSpans = encodedSpans;
+        }
+
+        @Override
+        protected Void doExecute() throws IOException {
+            write(encodedSpans);
+            return null;
+        }
+
+        @Override
+        protected void doEnqueue(Callback<Void> callback) {
+            try {
+                write(encodedSpans);
+                callback.onSuccess(null);
+            } catch (IOException | RuntimeException e) {
+                callback.onError(e);
+            }
+        }
+
+        @Override
+        public Call<Void> clone() {
+            return new WriteCall(encodedSpans);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.simpleecom.common.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a child span for each controller and repository call so a trace
+ * shows where a request spent its time: HTTP filter chain (Sleuth's server
+ * span), then controller, then repository, then the JDBC statements Sleuth
+ * records underneath. Calls outside a sampled trace run untouched.
+ */
+@Aspect
+@Component
+public class LayerSpanAspect {
+
+    @Autowired
+    private Tracer tracer;
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object controller(ProceedingJoinPoint pjp) throws Throwable {
+        return trace(pjp, "controller", pjp.getSignature().getDeclaringType().getSimpleName());
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object repository(ProceedingJoinPoint pjp) throws Throwable {
+        return trace(pjp, "repository", repositoryNames.computeIfAbsent(pjp.getTarget().getClass(),
+                type -> repositoryName(type, pjp)));
+    }
+
+    private Object trace(ProceedingJoinPoint pjp, String layer, String type) throws Throwable {
+        Span parent = tracer.currentSpan();
+        if (parent == null || !Boolean.TRUE.equals(parent.context().sampled())) {
+            return pjp.proceed();
+        }
+        Span span = tracer.nextSpan(parent)
+                .name(type + "." + pjp.getSignature().getName())
+                .tag("layer", layer)
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return pjp.proceed();
+        } catch (Throwable t) {
+            span.error(t);
+            throw t;
+        } finally {
+            span.end();
+        }
+    }
+
+    // Spring Data proxies implement the application's repository interface;
+    // the declaring type would otherwise be CrudRepository for inherited methods
+    private static String repositoryName(Class<?> proxyType, ProceedingJoinPoint pjp) {
+        for (Class<?> candidate : proxyType.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate)
+                    && !candidate.getName().startsWith("org.springframework.")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return pjp.getSignature().getDeclaringType().getSimpleName();
+    }
+}
@@ -0,0 +1,29 @@
+package com.simpleecom.common.tracing;
+
+import brave.handler.SpanHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import zipkin2.reporter.brave.AsyncZipkinSpanHandler;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// Sleuth reports to every SpanHandler bean, so this runs alongside the
+// Zipkin exporter when spring.zipkin.enabled points at a real collector
+@Configuration
+@ConditionalOnProperty(name = "tracing.file.enabled", havingValue = "true")
+public class TracingConfig {
+
+    @Bean
+    public FileSender traceFileSender(@Value("${tracing.file.path}") String path) throws IOException {
+        return new FileSender(Paths.get(path));
+    }
+
+    // Batches off the request thread; closing the handler flushes what is queued
+    @Bean
+    public SpanHandler traceFileSpanHandler(FileSender traceFileSender) {
+        return AsyncZipkinSpanHandler.create(traceFileSender);
+    }
+}
@@ -0,0 +1,107 @@
+package com.simpleecom.loadtest;
+
+import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.service.ProductService;
+import com.simpleecom.userservice.model.Role;
+import com.simpleecom.userservice.model.User;
+import com.simpleecom.userservice.repository.UserRepository;
+import com.simpleecom.userservice.security.JwtUtil;
+import com.simpleecom.userservice.service.RoleRegistry;
+import com.simpleecom.userservice.service.UserDetailsImpl;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the in-memory databases through the services' own beans, so caches
+ * and indexes see the data exactly as they would after real writes.
+ */
+final class DataSeeder {
+
+    static final String[] CATEGORIES = {"electronics", "home", "books", "clothing", "sports", "toys", "garden", "beauty"};
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private DataSeeder() {
+    }
+
+    /**
+     * Registers the shoppers directly in user-service's repository and signs
+     * each one a token with its JwtUtil, so the run starts from returning,
+     * logged-in shoppers instead of a login stampede; logins in the mix
+     * still go through the real endpoint.
+     */
+    static List<VirtualUser> seedUsers(ApplicationContext userService, int count) {
+        // Hash once: seeding should not spend minutes in BCrypt
+        String hash = userService.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Role userRole = userService.getBean(RoleRegistry.class).require("ROLE_USER");
+        UserRepository repository = userService.getBean(UserRepository.class);
+
+        List<User> accounts = new ArrayList<>(count);
+        List<VirtualUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = "loaduser" + i;
+            User user = new User(username, username + "@loadtest.local", hash);
+            user.getRoles().add(userRole);
+            accounts.add(user);
+            users.add(new VirtualUser(i, username, PASSWORD));
+        }
+        repository.saveAll(accounts);
+
+        JwtUtil jwtUtil = userService.getBean(JwtUtil.class);
+        for (int i = 0; i < count; i++) {
+            UserDetailsImpl principal = UserDetailsImpl.build(accounts.get(i));
+            users.get(i).setToken(jwtUtil.generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        }
+        return users;
+    }
+
+    /** Adds the catalog through ProductService, which assigns ids and publishes change events. */
+    static Catalog seedProducts(ApplicationContext productService, int count, long seed) {
+        ProductService products = productService.getBean(ProductService.class);
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] ids = new long[count];
+        double[] prices = new double[count];
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Load test product " + i);
+            product.setDescription("Seeded catalog entry " + i + " for load testing");
+            product.setPrice(Math.round((1 + random.nextDouble() * 999) * 100) / 100.0);
+            // A tenth of the catalog is out of stock, as in a real store
+            product.setQuantity(random.nextInt(10) == 0 ? 0 : 50 + random.nextInt(500));
+            product.setAdminUsername("loadadmin");
+            product.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            Product saved = products.addProduct(product);
+            ids[i] = saved.getId();
+            prices[i] = saved.getPrice();
+        }
+        return new Catalog(ids, prices);
+    }
+
+    static final class Catalog {
+        private final long[] ids;
+        private final double[] prices;
+
+        Catalog(long[] ids, double[] prices) {
+            this.ids = ids;
+            this.prices = prices;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        long id(int index) {
+            return ids[index];
+        }
+
+        double price(int index) {
+            return prices[index];
+        }
+    }
+}
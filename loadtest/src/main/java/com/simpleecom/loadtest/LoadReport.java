@@ -0,0 +1,112 @@
+package com.simpleecom.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-route throughput and latency percentiles for the measured window,
+ * plus an "all" row across routes.
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final List<RouteStats> routes;
+    private final double measuredSeconds;
+
+    LoadReport(List<RouteStats> routes, double measuredSeconds) {
+        this.routes = routes;
+        this.measuredSeconds = measuredSeconds;
+    }
+
+    void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-12s %8s %8s %6s %6s %6s %6s %6s %9s %9s %9s %9s %9s %9s%n",
+                "route", "count", "ok", "4xx", "429", "5xx", "fail", "drop",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : rows()) {
+            out.printf(Locale.ROOT, "%-12s %8d %8d %6d %6d %6d %6d %6d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.route, row.count, row.ok, row.clientErrors, row.throttled, row.serverErrors,
+                    row.failures, row.dropped, row.count / measuredSeconds,
+                    row.percentiles[0], row.percentiles[1], row.percentiles[2], row.percentiles[3], row.max);
+        }
+    }
+
+    void writeCsv(String path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8))) {
+            out.println("route,count,ok,client_errors,throttled,server_errors,failures,dropped,"
+                    + "throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for (Row row : rows()) {
+                out.printf(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        row.route, row.count, row.ok, row.clientErrors, row.throttled, row.serverErrors,
+                        row.failures, row.dropped, row.count / measuredSeconds,
+                        row.percentiles[0], row.percentiles[1], row.percentiles[2], row.percentiles[3], row.max);
+            }
+        }
+    }
+
+    private List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        Row total = new Row("all");
+        for (RouteStats stats : routes) {
+            Histogram histogram = stats.histogram();
+            all.add(histogram);
+            Row row = new Row(stats.route);
+            row.fill(stats, histogram);
+            total.ok += row.ok;
+            total.clientErrors += row.clientErrors;
+            total.throttled += row.throttled;
+            total.serverErrors += row.serverErrors;
+            total.failures += row.failures;
+            total.dropped += row.dropped;
+            rows.add(row);
+        }
+        total.latency(all);
+        rows.add(total);
+        return rows;
+    }
+
+    private static final class Row {
+        final String route;
+        long count;
+        long ok;
+        long clientErrors;
+        long throttled;
+        long serverErrors;
+        long failures;
+        long dropped;
+        final double[] percentiles = new double[PERCENTILES.length];
+        double max;
+
+        Row(String route) {
+            this.route = route;
+        }
+
+        void fill(RouteStats stats, Histogram histogram) {
+            ok = stats.ok();
+            clientErrors = stats.clientErrors();
+            throttled = stats.throttled();
+            serverErrors = stats.serverErrors();
+            failures = stats.failures();
+            dropped = stats.dropped();
+            latency(histogram);
+        }
+
+        void latency(Histogram histogram) {
+            count = histogram.getTotalCount();
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                percentiles[i] = histogram.getValueAtPercentile(PERCENTILES[i]) / 1000.0;
+            }
+            max = histogram.getMaxValue() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.simpleecom.loadtest;
+
+import java.util.List;
+
+/**
+ * Boots the local stack, seeds it, drives the configured traffic mix through
+ * api-gateway and prints per-route throughput and latency percentiles.
+ *
+ * mvn -q compile exec:java -Dexec.args="--rate=200 --duration=120"
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        System.out.println("Load test: " + options);
+
+        int exitCode = 0;
+        try (LocalStack stack = LocalStack.start()) {
+            List<VirtualUser> users = DataSeeder.seedUsers(stack.userService(), options.users);
+            DataSeeder.Catalog catalog = DataSeeder.seedProducts(stack.productService(), options.products, options.seed);
+            System.out.printf("Seeded %d users and %d products; gateway at %s%n",
+                    users.size(), catalog.size(), stack.gateway());
+
+            LoadReport report = new OpenLoopGenerator(stack.gateway(), options, users, catalog).run();
+            System.out.println();
+            report.print(System.out);
+            if (options.csv != null) {
+                report.writeCsv(options.csv);
+                System.out.println("Wrote " + options.csv);
+            }
+        } catch (Exception e) {
+            System.err.println("Load test failed: " + e.getMessage());
+            e.printStackTrace();
+            exitCode = 1;
+        }
+        // Eureka and Netty leave non-daemon threads behind
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,81 @@
+package com.simpleecom.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as --name=value. Every option has a default,
+ * so a bare run is a short smoke test of the whole stack.
+ */
+final class LoadTestOptions {
+
+    static final String DEFAULT_MIX =
+            "login=5,browse=25,facets=10,product=35,cart-view=10,cart-add=8,cart-update=4,cart-remove=3";
+
+    final double rate;
+    final int durationSeconds;
+    final int warmupSeconds;
+    final int users;
+    final int products;
+    final int pageSize;
+    final Map<Operation, Integer> mix;
+    final int maxInFlight;
+    final int timeoutMs;
+    final long seed;
+    final String csv;
+
+    private LoadTestOptions(Map<String, String> values) {
+        rate = Double.parseDouble(values.getOrDefault("rate", "100"));
+        durationSeconds = Integer.parseInt(values.getOrDefault("duration", "60"));
+        warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "10"));
+        users = Integer.parseInt(values.getOrDefault("users", "200"));
+        products = Integer.parseInt(values.getOrDefault("products", "1000"));
+        pageSize = Integer.parseInt(values.getOrDefault("page-size", "20"));
+        mix = parseMix(values.getOrDefault("mix", DEFAULT_MIX));
+        maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "2000"));
+        timeoutMs = Integer.parseInt(values.getOrDefault("timeout-ms", "30000"));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        csv = values.get("csv");
+
+        if (rate <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || users <= 0 || products <= 0) {
+            throw new IllegalArgumentException("rate, duration, users and products must be positive");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromRoute(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The traffic mix is empty");
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rate=%.0f/s duration=%ds warmup=%ds users=%d products=%d mix=%s",
+                rate, durationSeconds, warmupSeconds, users, products, mix);
+    }
+}
@@ -0,0 +1,167 @@
+package com.simpleecom.loadtest;
+
+import com.simpleecom.apigateway.ApiGatewayApplication;
+import com.simpleecom.cartservice.CartServiceApplication;
+import com.simpleecom.eurekaserver.EurekaServerApplication;
+import com.simpleecom.productservice.ProductServiceApplication;
+import com.simpleecom.userservice.UserServiceApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * eureka-server, user-, product- and cart-service and api-gateway running in
+ * this JVM, each in its own application context on a random port. Every app
+ * reads its own application.yml (from its jar) followed by the matching
+ * overlay under loadtest/, which only swaps MySQL for H2, ports and a few
+ * timings; everything else, routes and filters included, is the real
+ * configuration.
+ */
+final class LocalStack implements AutoCloseable {
+
+    private static final String[] SERVICES = {"user-service", "product-service", "cart-service"};
+    private static final long DISCOVERY_TIMEOUT_MS = 120000;
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    private ConfigurableApplicationContext userService;
+    private ConfigurableApplicationContext productService;
+    private URI gateway;
+
+    static LocalStack start() throws InterruptedException {
+        LocalStack stack = new LocalStack();
+        try {
+            stack.boot();
+            return stack;
+        } catch (RuntimeException | InterruptedException e) {
+            stack.close();
+            throw e;
+        }
+    }
+
+    private void boot() throws InterruptedException {
+        // Eureka needs its own URL up front, so its port cannot be left to the web server
+        int eurekaPort = freePort();
+        String defaultZone = "--eureka.client.service-url.defaultZone=http://localhost:" + eurekaPort + "/eureka/";
+        run("eureka-server", EurekaServerApplication.class, WebApplicationType.SERVLET,
+                "--server.port=" + eurekaPort, defaultZone);
+
+        userService = run("user-service", UserServiceApplication.class, WebApplicationType.SERVLET, defaultZone);
+        productService = run("product-service", ProductServiceApplication.class, WebApplicationType.SERVLET, defaultZone);
+        run("cart-service", CartServiceApplication.class, WebApplicationType.SERVLET, defaultZone);
+        ConfigurableApplicationContext gatewayContext = run("api-gateway", ApiGatewayApplication.class,
+                WebApplicationType.REACTIVE, defaultZone);
+        if (!(((WebServerApplicationContext) gatewayContext).getWebServer() instanceof NettyWebServer)) {
+            throw new IllegalStateException("api-gateway must run on Netty");
+        }
+        gateway = URI.create("http://localhost:" + port(gatewayContext));
+
+        awaitDiscovery(gatewayContext.getBean(DiscoveryClient.class));
+    }
+
+    URI gateway() {
+        return gateway;
+    }
+
+    ConfigurableApplicationContext userService() {
+        return userService;
+    }
+
+    ConfigurableApplicationContext productService() {
+        return productService;
+    }
+
+    @Override
+    public void close() {
+        // Gateway first, eureka last
+        List<ConfigurableApplicationContext> reversed = new ArrayList<>(contexts);
+        Collections.reverse(reversed);
+        for (ConfigurableApplicationContext context : reversed) {
+            try {
+                context.close();
+            } catch (RuntimeException e) {
+                System.err.println("Error stopping context: " + e.getMessage());
+            }
+        }
+        contexts.clear();
+    }
+
+    private ConfigurableApplicationContext run(String name, Class<?> application, WebApplicationType type,
+                                               String... args) {
+        long started = System.currentTimeMillis();
+        String[] allArgs = new String[args.length + 1];
+        allArgs[0] = "--spring.config.location=" + ownConfig(application) + ",classpath:loadtest/" + name + ".yml";
+        System.arraycopy(args, 0, allArgs, 1, args.length);
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(application);
+        if (type == WebApplicationType.REACTIVE) {
+            // Tomcat is on the classpath for the other apps and would otherwise be picked over Netty
+            builder.sources(NettyServer.class);
+        }
+        ConfigurableApplicationContext context = builder
+                .web(type)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(allArgs);
+        contexts.add(context);
+        System.out.printf("Started %s on port %d in %d ms%n", name, port(context), System.currentTimeMillis() - started);
+        return context;
+    }
+
+    // Every app ships an application.yml at the same classpath location, so address it through the app's own jar
+    private static String ownConfig(Class<?> application) {
+        URL location = application.getProtectionDomain().getCodeSource().getLocation();
+        String url = location.toString();
+        return url.endsWith(".jar") ? "jar:" + url + "!/application.yml" : url + "application.yml";
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class NettyServer {
+
+        @Bean
+        NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+            return new NettyReactiveWebServerFactory();
+        }
+    }
+
+    // The gateway routes through lb:// URIs, so wait until its registry knows every service
+    private static void awaitDiscovery(DiscoveryClient discovery) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + DISCOVERY_TIMEOUT_MS;
+        for (String service : SERVICES) {
+            while (discovery.getInstances(service).isEmpty()) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("api-gateway did not discover " + service + " in time");
+                }
+                Thread.sleep(500);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.simpleecom.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests on a fixed schedule derived from the target rate, whether
+ * or not earlier requests have completed. A slow system therefore shows up
+ * as latency (measured from the scheduled start) rather than as a quietly
+ * lower request rate, which is what a closed-loop client would report.
+ */
+final class OpenLoopGenerator {
+
+    private static final String[] SORTS = {"id", "price", "category"};
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI gateway;
+    private final LoadTestOptions options;
+    private final List<VirtualUser> users;
+    private final DataSeeder.Catalog catalog;
+    private final Map<Operation, RouteStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] schedule;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ExecutorService callbacks;
+    private final HttpClient client;
+
+    OpenLoopGenerator(URI gateway, LoadTestOptions options, List<VirtualUser> users, DataSeeder.Catalog catalog) {
+        this.gateway = gateway;
+        this.options = options;
+        this.users = users;
+        this.catalog = catalog;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new RouteStats(operation.route()));
+        }
+
+        // Expand the weights into a lookup table so picking an operation is one array read
+        List<Operation> table = new ArrayList<>();
+        options.mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        this.schedule = table.toArray(new Operation[0]);
+
+        this.callbacks = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "loadtest-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(callbacks)
+                .build();
+    }
+
+    /** Runs warmup then the measured window, and returns the measured window's report. */
+    LoadReport run() throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        SplittableRandom random = new SplittableRandom(options.seed);
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            if (operation.needsLogin() && user.getToken() == null) {
+                operation = Operation.LOGIN;
+            }
+            boolean measured = scheduled >= measureFrom;
+            if (inFlight.get() >= options.maxInFlight) {
+                if (measured) {
+                    stats.get(operation).recordDropped();
+                }
+                continue;
+            }
+            send(operation, user, random.nextInt(), random.nextDouble(), scheduled, measured);
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.timeoutMs);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        callbacks.shutdownNow();
+        return new LoadReport(new ArrayList<>(stats.values()), options.durationSeconds);
+    }
+
+    private void send(Operation operation, VirtualUser user, int salt, double skew, long scheduled, boolean measured) {
+        Long cartItem = null;
+        if (operation == Operation.CART_UPDATE || operation == Operation.CART_REMOVE) {
+            cartItem = user.pickCartItem(salt);
+            if (cartItem == null) {
+                operation = Operation.CART_ADD;
+            }
+        }
+        // Product popularity is skewed: most detail views and cart adds hit a small hot set
+        int productIndex = (int) (catalog.size() * skew * skew * skew);
+        long productId = cartItem != null ? cartItem : catalog.id(productIndex);
+
+        HttpRequest request = buildRequest(operation, user, productIndex, productId, salt);
+        Operation op = operation;
+        RouteStats route = stats.get(op);
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            inFlight.decrementAndGet();
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+            if (error != null) {
+                if (measured) {
+                    route.recordFailure(latencyMicros);
+                }
+                return;
+            }
+            if (measured) {
+                route.recordResponse(response.statusCode(), latencyMicros);
+            }
+            onResponse(op, user, productId, response);
+        });
+    }
+
+    private HttpRequest buildRequest(Operation operation, VirtualUser user, int productIndex, long productId, int salt) {
+        HttpRequest.Builder builder;
+        switch (operation) {
+            case LOGIN:
+                builder = post("/api/auth/login",
+                        "{\"username\":\"" + user.username + "\",\"password\":\"" + user.password + "\"}");
+                break;
+            case BROWSE:
+                builder = get("/api/products?size=" + options.pageSize + "&sort=" + SORTS[Math.floorMod(salt, SORTS.length)]);
+                break;
+            case FACETS:
+                builder = get("/api/products/facets?category=" + DataSeeder.CATEGORIES[Math.floorMod(salt, DataSeeder.CATEGORIES.length)]
+                        + "&inStock=true&size=" + options.pageSize);
+                break;
+            case PRODUCT:
+                builder = get("/api/products/" + productId);
+                break;
+            case CART_VIEW:
+                builder = get("/api/cart");
+                break;
+            case CART_ADD:
+                builder = post("/api/cart/items", "{\"productId\":" + productId + ",\"quantity\":1,\"price\":"
+                        + catalog.price(productIndex) + "}");
+                break;
+            case CART_UPDATE:
+                builder = request("/api/cart/items/" + productId)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"quantity\":" + (1 + Math.floorMod(salt, 4)) + "}"));
+                break;
+            case CART_REMOVE:
+                builder = request("/api/cart/items/" + productId).DELETE();
+                break;
+            default:
+                throw new IllegalStateException("Unhandled operation " + operation);
+        }
+
+        builder.header("X-Forwarded-For", user.clientAddress);
+        String token = user.getToken();
+        if (token != null && operation != Operation.LOGIN) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private void onResponse(Operation operation, VirtualUser user, long productId, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status == 401 || status == 403) {
+            user.setToken(null);
+            return;
+        }
+        if (status != 200) {
+            return;
+        }
+        switch (operation) {
+            case LOGIN:
+                try {
+                    JsonNode body = MAPPER.readTree(response.body());
+                    user.setToken(body.path("token").asText(null));
+                } catch (Exception e) {
+                    user.setToken(null);
+                }
+                break;
+            case CART_ADD:
+                user.added(productId);
+                break;
+            case CART_REMOVE:
+                user.removed(productId);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .timeout(Duration.ofMillis(options.timeoutMs))
+                .header("Accept", "application/json");
+    }
+}
@@ -0,0 +1,39 @@
+package com.simpleecom.loadtest;
+
+/**
+ * The requests the generator can issue. The route name is what the mix
+ * option and the report use.
+ */
+enum Operation {
+    LOGIN("login"),
+    BROWSE("browse"),
+    FACETS("facets"),
+    PRODUCT("product"),
+    CART_VIEW("cart-view"),
+    CART_ADD("cart-add"),
+    CART_UPDATE("cart-update"),
+    CART_REMOVE("cart-remove");
+
+    private final String route;
+
+    Operation(String route) {
+        this.route = route;
+    }
+
+    String route() {
+        return route;
+    }
+
+    boolean needsLogin() {
+        return this != LOGIN && this != BROWSE && this != FACETS && this != PRODUCT;
+    }
+
+    static Operation fromRoute(String route) {
+        for (Operation operation : values()) {
+            if (operation.route.equals(route)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + route);
+    }
+}
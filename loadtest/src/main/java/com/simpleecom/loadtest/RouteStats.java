@@ -0,0 +1,85 @@
+package com.simpleecom.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counters and a latency histogram for one route. Latency is in
+ * microseconds, measured from the request's scheduled start, so time spent
+ * queued behind a slow system is included.
+ */
+final class RouteStats {
+
+    final String route;
+
+    private final Recorder latency = new Recorder(3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private Histogram histogram;
+
+    RouteStats(String route) {
+        this.route = route;
+    }
+
+    void recordResponse(int status, long latencyMicros) {
+        latency.recordValue(latencyMicros);
+        if (status < 400) {
+            ok.increment();
+        } else if (status == 429) {
+            throttled.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    // Timeouts and connection errors; they still took time from the caller's point of view
+    void recordFailure(long latencyMicros) {
+        latency.recordValue(latencyMicros);
+        failures.increment();
+    }
+
+    // Not sent because max-in-flight was reached
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    Histogram histogram() {
+        if (histogram == null) {
+            histogram = latency.getIntervalHistogram();
+        }
+        return histogram;
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long throttled() {
+        return throttled.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
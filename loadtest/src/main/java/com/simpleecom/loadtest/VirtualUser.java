@@ -0,0 +1,48 @@
+package com.simpleecom.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One simulated shopper: credentials, the client address the gateway sees,
+ * the token from its last login and the products it believes are in its cart.
+ */
+final class VirtualUser {
+
+    final String username;
+    final String password;
+    final String clientAddress;
+
+    private volatile String token;
+    private final Set<Long> cart = ConcurrentHashMap.newKeySet();
+
+    VirtualUser(int index, String username, String password) {
+        this.username = username;
+        this.password = password;
+        this.clientAddress = "10." + ((index >> 16) & 0xff) + "." + ((index >> 8) & 0xff) + "." + (index & 0xff);
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    void setToken(String token) {
+        this.token = token;
+    }
+
+    void added(long productId) {
+        cart.add(productId);
+    }
+
+    void removed(long productId) {
+        cart.remove(productId);
+    }
+
+    // Null when the cart is believed to be empty
+    Long pickCartItem(int salt) {
+        List<Long> items = new ArrayList<>(cart);
+        return items.isEmpty() ? null : items.get(Math.floorMod(salt, items.size()));
+    }
+}
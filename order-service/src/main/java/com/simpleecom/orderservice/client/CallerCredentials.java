@@ -0,0 +1,38 @@
+package com.simpleecom.orderservice.client;
+
+import com.simpleecom.common.security.IdentityHeaderVerifier;
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The caller's credentials as they reached this service: the gateway's signed
+ * identity header, a bearer token, or both. They are replayed on calls made on
+ * the caller's behalf so downstream services see the same user.
+ */
+public class CallerCredentials {
+
+    private final String identity;
+    private final String authorization;
+
+    public CallerCredentials(String identity, String authorization) {
+        this.identity = identity;
+        this.authorization = authorization;
+    }
+
+    public static CallerCredentials from(HttpServletRequest request) {
+        return new CallerCredentials(request.getHeader(IdentityHeaderVerifier.HEADER),
+                request.getHeader(HttpHeaders.AUTHORIZATION));
+    }
+
+    public HttpHeaders toHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (identity != null) {
+            headers.set(IdentityHeaderVerifier.HEADER, identity);
+        }
+        if (authorization != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,46 @@
+package com.simpleecom.orderservice.client;
+
+import com.simpleecom.orderservice.payload.CartLine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class CartClient {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${orders.clients.cart-url:http://cart-service}")
+    private String cartUrl;
+
+    public List<CartLine> getCart(CallerCredentials credentials) {
+        CartLine[] lines = restTemplate.exchange(cartUrl + "/api/cart", HttpMethod.GET,
+                new HttpEntity<>(credentials.toHeaders()), CartLine[].class).getBody();
+        return lines == null ? Collections.<CartLine>emptyList() : Arrays.asList(lines);
+    }
+
+    // Takes the given quantities off the cart, leaving anything added since the checkout started
+    public void removeLines(Map<Long, Integer> lines, CallerCredentials credentials) {
+        List<Map<String, Object>> mutations = new ArrayList<>(lines.size());
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            Map<String, Object> mutation = new HashMap<>();
+            mutation.put("op", "SUBTRACT");
+            mutation.put("productId", line.getKey());
+            mutation.put("quantity", line.getValue());
+            mutations.add(mutation);
+        }
+        restTemplate.exchange(cartUrl + "/api/cart/batch", HttpMethod.POST,
+                new HttpEntity<>(mutations, credentials.toHeaders()), String.class);
+    }
+}
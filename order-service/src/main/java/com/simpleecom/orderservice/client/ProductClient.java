@@ -0,0 +1,67 @@
+package com.simpleecom.orderservice.client;
+
+import com.simpleecom.orderservice.payload.ProductSnapshot;
+import com.simpleecom.orderservice.payload.Reservation;
+import com.simpleecom.orderservice.payload.ReservationLine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ProductClient {
+
+    private static final String RESERVATIONS = "/api/products/inventory/reservations";
+
+    // Matches product-service's products.batch.max-ids default
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${orders.clients.product-url:http://product-service}")
+    private String productUrl;
+
+    // Keyed by product id; products that no longer exist are simply absent
+    public Map<Long, ProductSnapshot> getProducts(List<Long> ids, CallerCredentials credentials) {
+        Map<Long, ProductSnapshot> products = new LinkedHashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            ProductSnapshot[] found = restTemplate.exchange(productUrl + "/api/products/batch?ids={ids}",
+                    HttpMethod.GET, new HttpEntity<>(credentials.toHeaders()), ProductSnapshot[].class,
+                    StringUtils.collectionToCommaDelimitedString(chunk)).getBody();
+            if (found != null) {
+                for (ProductSnapshot product : found) {
+                    products.put(product.getId(), product);
+                }
+            }
+        }
+        return products;
+    }
+
+    public Reservation reserve(List<ReservationLine> items, long ttlMs, CallerCredentials credentials) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("items", items);
+        body.put("ttlMs", ttlMs);
+        return restTemplate.exchange(productUrl + RESERVATIONS, HttpMethod.POST,
+                new HttpEntity<>(body, credentials.toHeaders()), Reservation.class).getBody();
+    }
+
+    public void commit(String reservationId, CallerCredentials credentials) {
+        restTemplate.exchange(productUrl + RESERVATIONS + "/{id}/commit", HttpMethod.POST,
+                new HttpEntity<>(credentials.toHeaders()), String.class, reservationId);
+    }
+
+    public void release(String reservationId, CallerCredentials credentials) {
+        restTemplate.exchange(productUrl + RESERVATIONS + "/{id}", HttpMethod.DELETE,
+                new HttpEntity<>(credentials.toHeaders()), String.class, reservationId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.simpleecom.orderservice.config;
+
+import com.simpleecom.common.loadbalancer.UserAffinityLoadBalancerConfig;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Configuration;
+
+// Checkout must read and clear the cart on the instance that buffers the user's edits
+@Configuration
+@LoadBalancerClient(name = "cart-service", configuration = UserAffinityLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,108 @@
+package com.simpleecom.orderservice.controller;
+
+import com.simpleecom.orderservice.client.CallerCredentials;
+import com.simpleecom.orderservice.model.Order;
+import com.simpleecom.orderservice.payload.CheckoutAccepted;
+import com.simpleecom.orderservice.payload.CheckoutRequest;
+import com.simpleecom.orderservice.payload.StatusUpdate;
+import com.simpleecom.orderservice.service.CheckoutFailedException;
+import com.simpleecom.orderservice.service.CheckoutPipeline;
+import com.simpleecom.orderservice.service.CheckoutQueueFullException;
+import com.simpleecom.orderservice.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "*")
+public class OrderController {
+
+    // Clients send a fresh key per checkout attempt and the same one on retries
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    // Matches the orders.idempotency_key column
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    @Autowired
+    private CheckoutPipeline checkoutPipeline;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${orders.checkout.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    @GetMapping("/health")
+    public ResponseEntity<String> health() {
+        return ResponseEntity.ok("Order Service is running");
+    }
+
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(Authentication authentication,
+                                      HttpServletRequest httpRequest,
+                                      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                      @RequestBody(required = false) CheckoutRequest request) {
+        if (idempotencyKey != null && (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return ResponseEntity.badRequest()
+                    .body("Error: " + IDEMPOTENCY_KEY + " must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        try {
+            Order order = checkoutPipeline.submit(authentication.getName(), CallerCredentials.from(httpRequest),
+                    request == null ? new CheckoutRequest() : request, idempotencyKey);
+            String statusUrl = "/api/orders/" + order.getId();
+            return ResponseEntity.accepted()
+                    .location(URI.create(statusUrl))
+                    .body(new CheckoutAccepted(order.getId(), order.getStatus(), statusUrl));
+        } catch (CheckoutQueueFullException | CheckoutFailedException e) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getOrder(@PathVariable Long id, Authentication authentication) {
+        Order order = orderService.getOrder(id);
+        if (order == null || !(order.getUsername().equals(authentication.getName()) || isAdmin(authentication))) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(order);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Order>> getMyOrders(Authentication authentication) {
+        return ResponseEntity.ok(orderService.getOrdersByUsername(authentication.getName()));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','SUPERADMIN')")
+    @GetMapping("/all")
+    public ResponseEntity<List<Order>> getAllOrders() {
+        return ResponseEntity.ok(orderService.getAllOrders());
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','SUPERADMIN')")
+    @PutMapping("/{id}/status")
+    public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestBody StatusUpdate update) {
+        try {
+            return ResponseEntity.ok(orderService.updateStatus(id, update.getStatus()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error: " + e.getMessage());
+        }
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") || a.getAuthority().equals("ROLE_SUPERADMIN"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.simpleecom.orderservice.event;
+
+import com.simpleecom.orderservice.model.Order;
+import com.simpleecom.orderservice.model.OrderStatus;
+
+/**
+ * Published whenever an order is created or changes status so that
+ * read-side views such as the analytics rollups can update incrementally.
+ */
+public class OrderStatusChangedEvent {
+
+    private final Order order;
+    // Null when the order has just been created
+    private final OrderStatus previous;
+
+    public OrderStatusChangedEvent(Order order, OrderStatus previous) {
+        this.order = order;
+        this.previous = previous;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public OrderStatus getPrevious() {
+        return previous;
+    }
+
+    public OrderStatus getCurrent() {
+        return order.getStatus();
+    }
+}
@@ -0,0 +1,36 @@
+package com.simpleecom.orderservice.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// One row per day and category, maintained by AnalyticsRollup
+@Entity
+@Table(name = "daily_category_revenue")
+@IdClass(DailyCategoryRevenue.Key.class)
+@Data
+@NoArgsConstructor
+public class DailyCategoryRevenue {
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    private String category;
+
+    private double revenue;
+
+    private long units;
+
+    private long orders;
+
+    @Data
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private String category;
+    }
+}
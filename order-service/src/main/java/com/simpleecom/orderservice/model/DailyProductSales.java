@@ -0,0 +1,38 @@
+package com.simpleecom.orderservice.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// One row per day and product, maintained by AnalyticsRollup
+@Entity
+@Table(name = "daily_product_sales")
+@IdClass(DailyProductSales.Key.class)
+@Data
+@NoArgsConstructor
+public class DailyProductSales {
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    private Long productId;
+
+    private String productName;
+
+    private String category;
+
+    private long units;
+
+    private double revenue;
+
+    @Data
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Long productId;
+    }
+}
@@ -0,0 +1,72 @@
+package com.simpleecom.orderservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@Entity
+@Table(name = "orders", indexes = @Index(name = "idx_orders_username", columnList = "username"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_orders_idempotency",
+                columnNames = {"username", "idempotency_key"}))
+@Data
+@NoArgsConstructor
+public class Order {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String username;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private String failureReason;
+
+    private String customerName;
+
+    private String email;
+
+    private String phone;
+
+    private String shippingAddress;
+
+    private String instructions;
+
+    private double subtotal;
+
+    private double tax;
+
+    private double shipping;
+
+    private double total;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+
+    // A PENDING or COMMITTING order belongs to the worker that holds this lease; once it lapses
+    // the order counts as interrupted
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date leaseExpiresAt;
+
+    // Client-supplied Idempotency-Key of the checkout request that created the order
+    @JsonIgnore
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    // product-service reservation being committed for this order
+    @JsonIgnore
+    private String reservationId;
+
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @JoinColumn(name = "order_id")
+    private List<OrderItem> items = new ArrayList<>();
+}
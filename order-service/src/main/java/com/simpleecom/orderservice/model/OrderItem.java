@@ -0,0 +1,28 @@
+package com.simpleecom.orderservice.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Entity
+@Data
+@NoArgsConstructor
+public class OrderItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+
+    private String productName;
+
+    private String category;
+
+    private int quantity;
+
+    private double unitPrice;
+
+    private double tax;
+}
@@ -0,0 +1,25 @@
+package com.simpleecom.orderservice.model;
+
+public enum OrderStatus {
+    // Checkout pipeline
+    PENDING,
+    // Stock commit sent to product-service; the outcome decides CONFIRMED or FAILED
+    COMMITTING,
+    FAILED,
+    CONFIRMED,
+    // Fulfilment, driven by admins
+    SHIPPED,
+    DELIVERED,
+    CANCELLED;
+
+    public boolean canMoveTo(OrderStatus next) {
+        switch (this) {
+            case CONFIRMED:
+                return next == SHIPPED || next == CANCELLED;
+            case SHIPPED:
+                return next == DELIVERED;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.simpleecom.orderservice.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+// Number of orders currently in each status, maintained by AnalyticsRollup
+@Entity
+@Table(name = "order_status_count")
+@Data
+@NoArgsConstructor
+public class OrderStatusCount {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private long orders;
+}
@@ -0,0 +1,28 @@
+package com.simpleecom.orderservice.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSummary {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    // Item revenue (before tax and shipping) of confirmed, non-cancelled orders in range
+    private double revenue;
+
+    private Map<String, Long> ordersByStatus;
+
+    private List<CategoryRevenue> revenueByCategory;
+
+    private List<ProductSales> topProducts;
+}
@@ -0,0 +1,18 @@
+package com.simpleecom.orderservice.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A cart-service CartItem as returned by GET /api/cart
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CartLine {
+
+    private Long productId;
+
+    private int quantity;
+
+    private double price;
+}
@@ -0,0 +1,19 @@
+package com.simpleecom.orderservice.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryRevenue {
+
+    private String category;
+
+    private double revenue;
+
+    private long units;
+
+    private long orders;
+}
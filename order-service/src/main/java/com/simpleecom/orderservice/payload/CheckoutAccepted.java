@@ -0,0 +1,19 @@
+package com.simpleecom.orderservice.payload;
+
+import com.simpleecom.orderservice.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutAccepted {
+
+    private Long orderId;
+
+    private OrderStatus status;
+
+    // Poll this until the status leaves PENDING
+    private String statusUrl;
+}
@@ -0,0 +1,19 @@
+package com.simpleecom.orderservice.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CheckoutRequest {
+
+    private String customerName;
+
+    private String email;
+
+    private String phone;
+
+    private String shippingAddress;
+
+    private String instructions;
+}
@@ -0,0 +1,21 @@
+package com.simpleecom.orderservice.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+
+    private Long productId;
+
+    private String productName;
+
+    private String category;
+
+    private long units;
+
+    private double revenue;
+}
@@ -0,0 +1,22 @@
+package com.simpleecom.orderservice.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The fields of a product-service Product that checkout needs
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductSnapshot {
+
+    private Long id;
+
+    private String name;
+
+    private String category;
+
+    private double price;
+
+    private int quantity;
+}
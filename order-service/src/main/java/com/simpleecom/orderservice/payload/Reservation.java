@@ -0,0 +1,20 @@
+package com.simpleecom.orderservice.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Mirrors product-service's reservation payload
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Reservation {
+
+    private String id;
+
+    private List<ReservationLine> items;
+
+    private long expiresAt;
+}
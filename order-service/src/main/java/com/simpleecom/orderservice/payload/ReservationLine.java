@@ -0,0 +1,15 @@
+package com.simpleecom.orderservice.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationLine {
+
+    private Long productId;
+
+    private int quantity;
+}
@@ -0,0 +1,12 @@
+package com.simpleecom.orderservice.payload;
+
+import com.simpleecom.orderservice.model.OrderStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class StatusUpdate {
+
+    private OrderStatus status;
+}
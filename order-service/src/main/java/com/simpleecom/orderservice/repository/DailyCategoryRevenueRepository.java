@@ -0,0 +1,21 @@
+package com.simpleecom.orderservice.repository;
+
+import com.simpleecom.orderservice.model.DailyCategoryRevenue;
+import com.simpleecom.orderservice.payload.CategoryRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyCategoryRevenueRepository extends JpaRepository<DailyCategoryRevenue, DailyCategoryRevenue.Key> {
+    List<DailyCategoryRevenue> findByDayBetweenOrderByDayAscCategoryAsc(LocalDate from, LocalDate to);
+
+    @Query("SELECT new com.simpleecom.orderservice.payload.CategoryRevenue(r.category, SUM(r.revenue), SUM(r.units), SUM(r.orders)) "
+            + "FROM DailyCategoryRevenue r WHERE r.day BETWEEN :from AND :to "
+            + "GROUP BY r.category ORDER BY SUM(r.revenue) DESC")
+    List<CategoryRevenue> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,21 @@
+package com.simpleecom.orderservice.repository;
+
+import com.simpleecom.orderservice.model.DailyProductSales;
+import com.simpleecom.orderservice.payload.ProductSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, DailyProductSales.Key> {
+    @Query("SELECT new com.simpleecom.orderservice.payload.ProductSales(s.productId, MAX(s.productName), "
+            + "MAX(s.category), SUM(s.units), SUM(s.revenue)) "
+            + "FROM DailyProductSales s WHERE s.day BETWEEN :from AND :to "
+            + "GROUP BY s.productId ORDER BY SUM(s.revenue) DESC")
+    List<ProductSales> topByRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+}
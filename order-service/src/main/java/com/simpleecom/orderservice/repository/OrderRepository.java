@@ -0,0 +1,74 @@
+package com.simpleecom.orderservice.repository;
+
+import com.simpleecom.orderservice.model.Order;
+import com.simpleecom.orderservice.model.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+    List<Order> findByUsernameOrderByIdDesc(String username);
+
+    List<Order> findAllByOrderByIdDesc();
+
+    Optional<Order> findByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    Optional<Order> findFirstByUsernameAndStatusInOrderByIdDesc(String username, Collection<OrderStatus> statuses);
+
+    // Orders from before leases existed have none and count as expired
+    @Query("SELECT o FROM Order o WHERE o.status = com.simpleecom.orderservice.model.OrderStatus.PENDING "
+            + "AND (o.leaseExpiresAt IS NULL OR o.leaseExpiresAt < :now)")
+    List<Order> findPendingWithExpiredLease(@Param("now") Date now);
+
+    // Extends the lease of a still-PENDING order; returns 0 once the order has been settled by anyone
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.leaseExpiresAt = :until "
+            + "WHERE o.id = :id AND o.status = com.simpleecom.orderservice.model.OrderStatus.PENDING")
+    int renewLease(@Param("id") Long id, @Param("until") Date until);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = com.simpleecom.orderservice.model.OrderStatus.FAILED, "
+            + "o.failureReason = :reason, o.updatedAt = :now "
+            + "WHERE o.id = :id AND o.status = com.simpleecom.orderservice.model.OrderStatus.PENDING "
+            + "AND (o.leaseExpiresAt IS NULL OR o.leaseExpiresAt < :now)")
+    int failIfLeaseExpired(@Param("id") Long id, @Param("reason") String reason, @Param("now") Date now);
+
+    // Hands a priced PENDING order to the stock commit; returns 0 when a sweep failed it first
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = com.simpleecom.orderservice.model.OrderStatus.COMMITTING, "
+            + "o.reservationId = :reservationId, o.updatedAt = :now "
+            + "WHERE o.id = :id AND o.status = com.simpleecom.orderservice.model.OrderStatus.PENDING")
+    int startCommit(@Param("id") Long id, @Param("reservationId") String reservationId, @Param("now") Date now);
+
+    // Records the commit outcome; returns 0 when a worker or sweep already settled the order
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = :status, o.failureReason = :reason, o.updatedAt = :now "
+            + "WHERE o.id = :id AND o.status = com.simpleecom.orderservice.model.OrderStatus.COMMITTING")
+    int settleCommit(@Param("id") Long id, @Param("status") OrderStatus status, @Param("reason") String reason,
+                     @Param("now") Date now);
+
+    @Query("SELECT o FROM Order o WHERE o.status = com.simpleecom.orderservice.model.OrderStatus.COMMITTING "
+            + "AND (o.leaseExpiresAt IS NULL OR o.leaseExpiresAt < :now)")
+    List<Order> findCommittingWithExpiredLease(@Param("now") Date now);
+
+    // Takes over a COMMITTING order whose worker went away; only one sweep wins it
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.leaseExpiresAt = :until "
+            + "WHERE o.id = :id AND o.status = com.simpleecom.orderservice.model.OrderStatus.COMMITTING "
+            + "AND (o.leaseExpiresAt IS NULL OR o.leaseExpiresAt < :now)")
+    int claimExpiredCommit(@Param("id") Long id, @Param("until") Date until, @Param("now") Date now);
+}
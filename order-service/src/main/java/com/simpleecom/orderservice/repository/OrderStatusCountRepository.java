@@ -0,0 +1,10 @@
+package com.simpleecom.orderservice.repository;
+
+import com.simpleecom.orderservice.model.OrderStatus;
+import com.simpleecom.orderservice.model.OrderStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderStatusCountRepository extends JpaRepository<OrderStatusCount, OrderStatus> {
+}
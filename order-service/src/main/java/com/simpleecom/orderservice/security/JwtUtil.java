@@ -0,0 +1,55 @@
+package com.simpleecom.orderservice.security;
+
+import com.simpleecom.common.logging.LogSampler;
+import io.jsonwebtoken.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class JwtUtil {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+
+    // Bad tokens arrive at request rate; a few per window are enough to notice them
+    private static final LogSampler INVALID_TOKEN_LOG = new LogSampler(5, 10, TimeUnit.SECONDS);
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    public String getUsernameFromJwtToken(String token) {
+        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    // Verifies the token once and returns its claims, or null when it is not valid
+    public Claims parseClaims(String authToken) {
+        try {
+            return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken).getBody();
+        } catch (SignatureException e) {
+            logInvalid("Invalid JWT signature", e);
+        } catch (MalformedJwtException e) {
+            logInvalid("Invalid JWT token", e);
+        } catch (ExpiredJwtException e) {
+            logInvalid("JWT token is expired", e);
+        } catch (UnsupportedJwtException e) {
+            logInvalid("JWT token is unsupported", e);
+        } catch (IllegalArgumentException e) {
+            logInvalid("JWT claims string is empty", e);
+        }
+        return null;
+    }
+
+    private void logInvalid(String reason, RuntimeException e) {
+        long suppressed = INVALID_TOKEN_LOG.acquire();
+        if (suppressed >= 0) {
+            logger.warn("{}: {} ({} similar suppressed)", reason, e.getMessage(), suppressed);
+        }
+    }
+}
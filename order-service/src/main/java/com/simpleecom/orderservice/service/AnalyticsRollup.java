@@ -0,0 +1,105 @@
+package com.simpleecom.orderservice.service;
+
+import com.simpleecom.orderservice.event.OrderStatusChangedEvent;
+import com.simpleecom.orderservice.model.Order;
+import com.simpleecom.orderservice.model.OrderItem;
+import com.simpleecom.orderservice.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the analytics tables current as orders move through their lifecycle.
+ * Every change is applied as additive upserts, so the dashboard reads a few
+ * pre-aggregated rows and never scans order history. Revenue is booked when an
+ * order is confirmed and reversed if it is later cancelled.
+ */
+@Component
+public class AnalyticsRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsRollup.class);
+
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    private static final String STATUS_UPSERT_SQL = "INSERT INTO order_status_count (status, orders) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE orders = orders + VALUES(orders)";
+    private static final String CATEGORY_UPSERT_SQL = "INSERT INTO daily_category_revenue "
+            + "(day, category, revenue, units, orders) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE revenue = revenue + VALUES(revenue), units = units + VALUES(units), "
+            + "orders = orders + VALUES(orders)";
+    private static final String PRODUCT_UPSERT_SQL = "INSERT INTO daily_product_sales "
+            + "(day, product_id, product_name, category, units, revenue) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE product_name = VALUES(product_name), category = VALUES(category), "
+            + "units = units + VALUES(units), revenue = revenue + VALUES(revenue)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public AnalyticsRollup(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        OrderStatus previous = event.getPrevious();
+        OrderStatus current = event.getCurrent();
+        int revenueSign = 0;
+        if (current == OrderStatus.CONFIRMED) {
+            revenueSign = 1;
+        } else if (current == OrderStatus.CANCELLED && previous != null && previous != OrderStatus.PENDING) {
+            revenueSign = -1;
+        }
+        int sign = revenueSign;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> statusRows = new ArrayList<>(2);
+                if (previous != null) {
+                    statusRows.add(new Object[]{previous.name(), -1});
+                }
+                statusRows.add(new Object[]{current.name(), 1});
+                jdbcTemplate.batchUpdate(STATUS_UPSERT_SQL, statusRows);
+                if (sign != 0) {
+                    bookRevenue(event.getOrder(), sign);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Never fail the order over its statistics; a rebuild puts them right
+            logger.error("Analytics rollup failed for order {}", event.getOrder().getId(), e);
+        }
+    }
+
+    private void bookRevenue(Order order, int sign) {
+        Date day = Date.valueOf(order.getCreatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+        Map<String, double[]> byCategory = new LinkedHashMap<>();
+        List<Object[]> productRows = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            String category = item.getCategory() == null ? UNCATEGORIZED : item.getCategory();
+            double revenue = item.getUnitPrice() * item.getQuantity();
+            double[] totals = byCategory.computeIfAbsent(category, key -> new double[2]);
+            totals[0] += revenue;
+            totals[1] += item.getQuantity();
+            productRows.add(new Object[]{day, item.getProductId(), item.getProductName(), category,
+                    (long) sign * item.getQuantity(), sign * revenue});
+        }
+
+        List<Object[]> categoryRows = new ArrayList<>(byCategory.size());
+        for (Map.Entry<String, double[]> entry : byCategory.entrySet()) {
+            double[] totals = entry.getValue();
+            categoryRows.add(new Object[]{day, entry.getKey(), sign * totals[0], (long) (sign * totals[1]), sign});
+        }
+        jdbcTemplate.batchUpdate(CATEGORY_UPSERT_SQL, categoryRows);
+        jdbcTemplate.batchUpdate(PRODUCT_UPSERT_SQL, productRows);
+    }
+}
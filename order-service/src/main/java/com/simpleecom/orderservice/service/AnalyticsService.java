@@ -0,0 +1,98 @@
+package com.simpleecom.orderservice.service;
+
+import com.simpleecom.orderservice.model.DailyCategoryRevenue;
+import com.simpleecom.orderservice.model.OrderStatusCount;
+import com.simpleecom.orderservice.payload.AnalyticsSummary;
+import com.simpleecom.orderservice.payload.CategoryRevenue;
+import com.simpleecom.orderservice.repository.DailyCategoryRevenueRepository;
+import com.simpleecom.orderservice.repository.DailyProductSalesRepository;
+import com.simpleecom.orderservice.repository.OrderStatusCountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AnalyticsService {
+
+    @Autowired
+    private DailyCategoryRevenueRepository dailyCategoryRevenueRepository;
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
+    @Autowired
+    private OrderStatusCountRepository orderStatusCountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.analytics.default-days:30}")
+    private int defaultDays;
+
+    @Value("${orders.analytics.max-top-products:100}")
+    private int maxTopProducts;
+
+    public AnalyticsSummary getSummary(LocalDate from, LocalDate to, int topProducts) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(defaultDays - 1L) : from;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        int limit = Math.max(1, Math.min(topProducts, maxTopProducts));
+
+        List<CategoryRevenue> byCategory = dailyCategoryRevenueRepository.sumByCategory(start, end);
+        double revenue = 0;
+        for (CategoryRevenue category : byCategory) {
+            revenue += category.getRevenue();
+        }
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (OrderStatusCount count : orderStatusCountRepository.findAll()) {
+            byStatus.put(count.getStatus().name(), count.getOrders());
+        }
+        return new AnalyticsSummary(start, end, Math.round(revenue * 100) / 100.0, byStatus, byCategory,
+                dailyProductSalesRepository.topByRevenue(start, end, PageRequest.of(0, limit)));
+    }
+
+    public List<DailyCategoryRevenue> getDailyRevenue(LocalDate from, LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(defaultDays - 1L) : from;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return dailyCategoryRevenueRepository.findByDayBetweenOrderByDayAscCategoryAsc(start, end);
+    }
+
+    /**
+     * Recomputes every rollup from the orders tables in three set-based
+     * statements. Meant for first deployment or after a rollup write failed.
+     */
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM order_status_count");
+        jdbcTemplate.update("DELETE FROM daily_category_revenue");
+        jdbcTemplate.update("DELETE FROM daily_product_sales");
+
+        jdbcTemplate.update("INSERT INTO order_status_count (status, orders) "
+                + "SELECT status, COUNT(*) FROM orders GROUP BY status");
+        jdbcTemplate.update("INSERT INTO daily_category_revenue (day, category, revenue, units, orders) "
+                + "SELECT DATE(o.created_at), COALESCE(i.category, 'Uncategorized'), "
+                + "SUM(i.unit_price * i.quantity), SUM(i.quantity), COUNT(DISTINCT o.id) "
+                + "FROM orders o JOIN order_item i ON i.order_id = o.id "
+                + "WHERE o.status IN ('CONFIRMED', 'SHIPPED', 'DELIVERED') "
+                + "GROUP BY DATE(o.created_at), COALESCE(i.category, 'Uncategorized')");
+        jdbcTemplate.update("INSERT INTO daily_product_sales (day, product_id, product_name, category, units, revenue) "
+                + "SELECT DATE(o.created_at), i.product_id, MAX(i.product_name), "
+                + "MAX(COALESCE(i.category, 'Uncategorized')), SUM(i.quantity), SUM(i.unit_price * i.quantity) "
+                + "FROM orders o JOIN order_item i ON i.order_id = o.id "
+                + "WHERE o.status IN ('CONFIRMED', 'SHIPPED', 'DELIVERED') "
+                + "GROUP BY DATE(o.created_at), i.product_id");
+    }
+}
@@ -0,0 +1,9 @@
+package com.simpleecom.orderservice.service;
+
+// A pipeline stage rejected the order; the message is shown to the customer
+public class CheckoutFailedException extends RuntimeException {
+
+    public CheckoutFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,459 @@
+package com.simpleecom.orderservice.service;
+
+import com.simpleecom.common.logging.RequestIdFilter;
+import com.simpleecom.common.security.IdentityHeaderVerifier;
+import com.simpleecom.orderservice.client.CallerCredentials;
+import com.simpleecom.orderservice.client.CartClient;
+import com.simpleecom.orderservice.client.ProductClient;
+import com.simpleecom.orderservice.event.OrderStatusChangedEvent;
+import com.simpleecom.orderservice.model.Order;
+import com.simpleecom.orderservice.model.OrderItem;
+import com.simpleecom.orderservice.model.OrderStatus;
+import com.simpleecom.orderservice.payload.CartLine;
+import com.simpleecom.orderservice.payload.CheckoutRequest;
+import com.simpleecom.orderservice.payload.ProductSnapshot;
+import com.simpleecom.orderservice.payload.Reservation;
+import com.simpleecom.orderservice.payload.ReservationLine;
+import com.simpleecom.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns a cart into an order off the request thread. Checkout only records a
+ * PENDING order and queues it; a bounded worker pool then runs
+ * validate -> reserve -> price -> persist -> commit, and the client polls
+ * the order until it is CONFIRMED or FAILED. A full queue is reported
+ * straight away rather than letting requests pile up. Each PENDING or
+ * COMMITTING order carries a lease held by the instance working on it, so a
+ * sweep on any instance only steps in for orders whose worker went away: a
+ * PENDING one is failed, a COMMITTING one has its (idempotent) stock commit
+ * retried until product-service gives an answer.
+ */
+@Service
+public class CheckoutPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutPipeline.class);
+
+    private static final List<OrderStatus> IN_FLIGHT = Arrays.asList(OrderStatus.PENDING, OrderStatus.COMMITTING);
+
+    private enum CommitOutcome {
+        COMMITTED,
+        // product-service no longer holds the reservation: released or expired
+        REJECTED,
+        // No answer; the order stays COMMITTING for the sweep
+        UNKNOWN
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartClient cartClient;
+
+    @Autowired
+    private ProductClient productClient;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CurrentTraceContext currentTraceContext;
+
+    @Autowired
+    private IdentityHeaderVerifier identityHeaderVerifier;
+
+    @Value("${orders.checkout.reservation-ttl-ms:120000}")
+    private long reservationTtlMs;
+
+    @Value("${orders.checkout.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${orders.checkout.commit-attempts:3}")
+    private int commitAttempts;
+
+    @Value("${orders.pricing.shipping:5.99}")
+    private double shipping;
+
+    private final ThreadPoolExecutor executor;
+
+    public CheckoutPipeline(@Value("${orders.checkout.workers:8}") int workers,
+                            @Value("${orders.checkout.queue-capacity:1000}") int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "checkout-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Records a PENDING order for the cart as it is now and queues it. A
+     * retried request gets the order it already created: the one carrying the
+     * same idempotency key or, without a key, the user's checkout still in
+     * flight.
+     */
+    public Order submit(String username, CallerCredentials credentials, CheckoutRequest request,
+                        String idempotencyKey) {
+        Order existing = idempotencyKey != null
+                ? orderRepository.findByUsernameAndIdempotencyKey(username, idempotencyKey).orElse(null)
+                : orderRepository.findFirstByUsernameAndStatusInOrderByIdDesc(username, IN_FLIGHT).orElse(null);
+        if (existing != null) {
+            return existing;
+        }
+        // The order is for the cart as the user saw it; later cart edits belong to the next checkout
+        Map<Long, Integer> lines = snapshotCart(credentials);
+
+        Date now = new Date();
+        Order order = new Order();
+        order.setUsername(username);
+        order.setIdempotencyKey(idempotencyKey);
+        order.setStatus(OrderStatus.PENDING);
+        order.setCustomerName(request.getCustomerName());
+        order.setEmail(request.getEmail());
+        order.setPhone(request.getPhone());
+        order.setShippingAddress(request.getShippingAddress());
+        order.setInstructions(request.getInstructions());
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        // Covers the time in the queue; the worker renews it when it starts
+        order.setLeaseExpiresAt(new Date(now.getTime() + leaseMs));
+        Order saved;
+        try {
+            saved = orderRepository.save(order);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry with the same key got there first
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            return orderRepository.findByUsernameAndIdempotencyKey(username, idempotencyKey).orElseThrow(() -> e);
+        }
+
+        // Workers log and call cart/product under the id and trace of the request that queued the order
+        String requestId = MDC.get(RequestIdFilter.MDC_KEY);
+        try {
+            executor.execute(currentTraceContext.wrap(() -> {
+                if (requestId != null) {
+                    MDC.put(RequestIdFilter.MDC_KEY, requestId);
+                }
+                try {
+                    process(saved.getId(), lines, credentials);
+                } finally {
+                    MDC.remove(RequestIdFilter.MDC_KEY);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            orderRepository.deleteById(saved.getId());
+            throw new CheckoutQueueFullException("Checkout queue is full");
+        }
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(saved, null));
+        return saved;
+    }
+
+    // Orders whose lease lapsed lost their worker, e.g. when an instance stopped
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${orders.checkout.lease-sweep-ms:60000}",
+            fixedDelayString = "${orders.checkout.lease-sweep-ms:60000}")
+    public void sweepInterruptedCheckouts() {
+        failInterruptedCheckouts();
+        reconcileInterruptedCommits();
+    }
+
+    private void failInterruptedCheckouts() {
+        Date now = new Date();
+        String reason = "Checkout was interrupted, please try again";
+        int failed = 0;
+        for (Order order : orderRepository.findPendingWithExpiredLease(now)) {
+            // Conditional, so a worker that renewed the lease in the meantime keeps the order
+            if (orderRepository.failIfLeaseExpired(order.getId(), reason, now) == 0) {
+                continue;
+            }
+            order.setStatus(OrderStatus.FAILED);
+            order.setFailureReason(reason);
+            order.setUpdatedAt(now);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order, OrderStatus.PENDING));
+            failed++;
+        }
+        if (failed > 0) {
+            logger.info("Marked {} interrupted checkouts as failed", failed);
+        }
+    }
+
+    // The stock may or may not have been committed, so ask again rather than guess
+    private void reconcileInterruptedCommits() {
+        Date now = new Date();
+        int settled = 0;
+        for (Order order : orderRepository.findCommittingWithExpiredLease(now)) {
+            Date until = new Date(now.getTime() + leaseMs);
+            if (orderRepository.claimExpiredCommit(order.getId(), until, now) == 0) {
+                continue;
+            }
+            order.setLeaseExpiresAt(until);
+            // No request to borrow credentials from; act as the order's owner
+            String identity = identityHeaderVerifier.sign(order.getUsername(), leaseMs);
+            if (identity == null) {
+                logger.warn("Cannot reconcile order {} without identity headers; leaving it COMMITTING", order.getId());
+                continue;
+            }
+            CallerCredentials credentials = new CallerCredentials(identity, null);
+            CommitOutcome outcome = order.getReservationId() == null
+                    ? CommitOutcome.REJECTED
+                    : commit(order, 1, credentials);
+            if (settle(order, outcome, credentials)) {
+                settled++;
+            }
+        }
+        if (settled > 0) {
+            logger.info("Settled {} interrupted stock commits", settled);
+        }
+    }
+
+    private void process(Long orderId, Map<Long, Integer> lines, CallerCredentials credentials) {
+        // Claim the order for the whole run; a sweep may already have failed it while it sat in the queue
+        if (orderRepository.renewLease(orderId, new Date(System.currentTimeMillis() + leaseMs)) == 0) {
+            return;
+        }
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            return;
+        }
+        Reservation reservation = null;
+        try {
+            if (lines.isEmpty()) {
+                throw new CheckoutFailedException("Cart is empty");
+            }
+            Map<Long, ProductSnapshot> products = loadProducts(lines, credentials);
+            reservation = reserve(lines, credentials);
+            price(order, lines, products);
+            order = orderRepository.save(order);
+            if (orderRepository.startCommit(orderId, reservation.getId(), new Date()) == 0) {
+                // The lease ran out and a sweep failed the order; it must not be committed now
+                release(reservation.getId(), credentials);
+                return;
+            }
+        } catch (CheckoutFailedException e) {
+            fail(order, reservation, e.getMessage(), credentials);
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Checkout {} failed", orderId, e);
+            fail(order, reservation, "Checkout failed, please try again", credentials);
+            return;
+        }
+        order.setStatus(OrderStatus.COMMITTING);
+        order.setReservationId(reservation.getId());
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order, OrderStatus.PENDING));
+
+        settle(order, commit(order, commitAttempts, credentials), credentials);
+    }
+
+    private Map<Long, Integer> snapshotCart(CallerCredentials credentials) {
+        List<CartLine> cart;
+        try {
+            cart = cartClient.getCart(credentials);
+        } catch (RestClientException e) {
+            logger.warn("Could not read cart for checkout: {}", e.getMessage());
+            throw new CheckoutFailedException("Cart is unavailable, please try again");
+        }
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (CartLine line : cart) {
+            if (line.getProductId() != null && line.getQuantity() > 0) {
+                lines.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            }
+        }
+        return lines;
+    }
+
+    private Map<Long, ProductSnapshot> loadProducts(Map<Long, Integer> lines, CallerCredentials credentials) {
+        Map<Long, ProductSnapshot> products = productClient.getProducts(new ArrayList<>(lines.keySet()), credentials);
+        for (Long productId : lines.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new CheckoutFailedException("Product " + productId + " is no longer available");
+            }
+        }
+        return products;
+    }
+
+    private Reservation reserve(Map<Long, Integer> lines, CallerCredentials credentials) {
+        List<ReservationLine> items = new ArrayList<>(lines.size());
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            items.add(new ReservationLine(line.getKey(), line.getValue()));
+        }
+        try {
+            return productClient.reserve(items, reservationTtlMs, credentials);
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new CheckoutFailedException("Not enough stock for one or more items");
+        }
+    }
+
+    // Prices come from the catalog at checkout time, not from the cart
+    private void price(Order order, Map<Long, Integer> lines, Map<Long, ProductSnapshot> products) {
+        List<OrderItem> items = new ArrayList<>(lines.size());
+        double subtotal = 0;
+        double tax = 0;
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            ProductSnapshot product = products.get(line.getKey());
+            OrderItem item = new OrderItem();
+            item.setProductId(product.getId());
+            item.setProductName(product.getName());
+            item.setCategory(product.getCategory());
+            item.setQuantity(line.getValue());
+            item.setUnitPrice(product.getPrice());
+            item.setTax(round(product.getPrice() * line.getValue() * taxRate(product.getCategory()) / 100));
+            items.add(item);
+            subtotal += product.getPrice() * line.getValue();
+            tax += item.getTax();
+        }
+        order.getItems().clear();
+        order.getItems().addAll(items);
+        order.setSubtotal(round(subtotal));
+        order.setTax(round(tax));
+        order.setShipping(shipping);
+        order.setTotal(round(subtotal + tax + shipping));
+        order.setUpdatedAt(new Date());
+    }
+
+    // product-service treats a repeated commit of a committed reservation as success, so retrying is safe
+    private CommitOutcome commit(Order order, int attempts, CallerCredentials credentials) {
+        long backoffMs = 200;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                productClient.commit(order.getReservationId(), credentials);
+                return CommitOutcome.COMMITTED;
+            } catch (HttpClientErrorException.NotFound e) {
+                return CommitOutcome.REJECTED;
+            } catch (RuntimeException e) {
+                if (attempt >= attempts) {
+                    logger.warn("Stock commit for order {} is unresolved, leaving it for the sweep: {}",
+                            order.getId(), e.getMessage());
+                    return CommitOutcome.UNKNOWN;
+                }
+                logger.warn("Retrying stock commit for order {}: {}", order.getId(), e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CommitOutcome.UNKNOWN;
+            }
+            backoffMs = Math.min(backoffMs * 2, 10000);
+        }
+    }
+
+    /**
+     * Moves a COMMITTING order on according to the commit outcome. Only the
+     * caller that wins the transition takes the items off the cart, so a
+     * worker and a sweep settling the same order never remove them twice.
+     * Returns whether this caller settled the order.
+     */
+    private boolean settle(Order order, CommitOutcome outcome, CallerCredentials credentials) {
+        if (outcome == CommitOutcome.UNKNOWN) {
+            return false;
+        }
+        OrderStatus status = outcome == CommitOutcome.COMMITTED ? OrderStatus.CONFIRMED : OrderStatus.FAILED;
+        String reason = outcome == CommitOutcome.COMMITTED ? null : "Reserved stock expired, please try again";
+        Date now = new Date();
+        try {
+            if (orderRepository.settleCommit(order.getId(), status, reason, now) == 0) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            // Still COMMITTING, so the sweep asks product-service again and settles it then
+            logger.warn("Could not record {} for order {}: {}", status, order.getId(), e.getMessage());
+            return false;
+        }
+        order.setStatus(status);
+        order.setFailureReason(reason);
+        order.setUpdatedAt(now);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order, OrderStatus.COMMITTING));
+        if (status == OrderStatus.CONFIRMED) {
+            removeFromCart(order, credentials);
+        }
+        return true;
+    }
+
+    // Only what was ordered; anything added to the cart since stays there
+    private void removeFromCart(Order order, CallerCredentials credentials) {
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            lines.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        try {
+            cartClient.removeLines(lines, credentials);
+        } catch (RuntimeException e) {
+            // The order stands; a stale cart is only an inconvenience
+            logger.warn("Could not remove ordered items from cart after order {}: {}", order.getId(), e.getMessage());
+        }
+    }
+
+    private void fail(Order order, Reservation reservation, String reason, CallerCredentials credentials) {
+        if (reservation != null) {
+            release(reservation.getId(), credentials);
+        }
+        order.setStatus(OrderStatus.FAILED);
+        order.setFailureReason(reason);
+        order.setUpdatedAt(new Date());
+        Order saved = orderRepository.save(order);
+        // Only PENDING orders fail here; COMMITTING ones are settled through settle()
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(saved, OrderStatus.PENDING));
+    }
+
+    private void release(String reservationId, CallerCredentials credentials) {
+        try {
+            productClient.release(reservationId, credentials);
+        } catch (RuntimeException e) {
+            // The reservation's TTL returns the stock eventually
+            logger.warn("Could not release reservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    // Same rates the storefront has always shown
+    private double taxRate(String category) {
+        if (category == null) {
+            return 4;
+        }
+        switch (category.toLowerCase()) {
+            case "electronics":
+                return 8;
+            case "home":
+                return 5;
+            default:
+                return 4;
+        }
+    }
+
+    private double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,8 @@
+package com.simpleecom.orderservice.service;
+
+public class CheckoutQueueFullException extends RuntimeException {
+
+    public CheckoutQueueFullException(String message) {
+        super(message);
+    }
+}
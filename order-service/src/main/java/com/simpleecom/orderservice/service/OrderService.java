@@ -0,0 +1,48 @@
+package com.simpleecom.orderservice.service;
+
+import com.simpleecom.orderservice.event.OrderStatusChangedEvent;
+import com.simpleecom.orderservice.model.Order;
+import com.simpleecom.orderservice.model.OrderStatus;
+import com.simpleecom.orderservice.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class OrderService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Order getOrder(Long id) {
+        return orderRepository.findById(id).orElse(null);
+    }
+
+    public List<Order> getOrdersByUsername(String username) {
+        return orderRepository.findByUsernameOrderByIdDesc(username);
+    }
+
+    public List<Order> getAllOrders() {
+        return orderRepository.findAllByOrderByIdDesc();
+    }
+
+    public Order updateStatus(Long id, OrderStatus status) {
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Order not found with id " + id));
+        if (status == null || !order.getStatus().canMoveTo(status)) {
+            throw new IllegalArgumentException("Cannot move order from " + order.getStatus() + " to " + status);
+        }
+        OrderStatus previous = order.getStatus();
+        order.setStatus(status);
+        order.setUpdatedAt(new Date());
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(saved, previous));
+        return saved;
+    }
+}
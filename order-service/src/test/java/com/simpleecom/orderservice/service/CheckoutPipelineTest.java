@@ -0,0 +1,334 @@
+package com.simpleecom.orderservice.service;
+
+import com.simpleecom.common.security.IdentityHeaderVerifier;
+import com.simpleecom.orderservice.client.CallerCredentials;
+import com.simpleecom.orderservice.client.CartClient;
+import com.simpleecom.orderservice.client.ProductClient;
+import com.simpleecom.orderservice.event.OrderStatusChangedEvent;
+import com.simpleecom.orderservice.model.Order;
+import com.simpleecom.orderservice.model.OrderItem;
+import com.simpleecom.orderservice.model.OrderStatus;
+import com.simpleecom.orderservice.payload.CartLine;
+import com.simpleecom.orderservice.payload.CheckoutRequest;
+import com.simpleecom.orderservice.payload.ProductSnapshot;
+import com.simpleecom.orderservice.payload.Reservation;
+import com.simpleecom.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckoutPipelineTest {
+
+    private static final CallerCredentials CREDENTIALS = new CallerCredentials("identity", null);
+    private static final long WAIT_MS = 5000;
+
+    private OrderRepository orderRepository;
+    private CartClient cartClient;
+    private ProductClient productClient;
+    private IdentityHeaderVerifier identityHeaderVerifier;
+    private CheckoutPipeline pipeline;
+
+    // "previous->current" as each event was published; current is read live from the order
+    private final List<String> transitions = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, Order> stored = new HashMap<>();
+
+    @BeforeEach
+    void setup() {
+        orderRepository = mock(OrderRepository.class);
+        cartClient = mock(CartClient.class);
+        productClient = mock(ProductClient.class);
+        identityHeaderVerifier = mock(IdentityHeaderVerifier.class);
+        CurrentTraceContext traceContext = mock(CurrentTraceContext.class);
+        when(traceContext.wrap(any(Runnable.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        doAnswer(invocation -> {
+            OrderStatusChangedEvent event = invocation.getArgument(0);
+            transitions.add(event.getPrevious() + "->" + event.getCurrent());
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        pipeline = new CheckoutPipeline(1, 10);
+        ReflectionTestUtils.setField(pipeline, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(pipeline, "cartClient", cartClient);
+        ReflectionTestUtils.setField(pipeline, "productClient", productClient);
+        ReflectionTestUtils.setField(pipeline, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(pipeline, "currentTraceContext", traceContext);
+        ReflectionTestUtils.setField(pipeline, "identityHeaderVerifier", identityHeaderVerifier);
+        ReflectionTestUtils.setField(pipeline, "reservationTtlMs", 120000L);
+        ReflectionTestUtils.setField(pipeline, "leaseMs", 300000L);
+        ReflectionTestUtils.setField(pipeline, "commitAttempts", 2);
+        ReflectionTestUtils.setField(pipeline, "shipping", 5.0);
+
+        // The worker reloads the order, so it gets its own copy as it would from the database
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if (order.getId() == null) {
+                order.setId(stored.size() + 1L);
+            }
+            stored.put(order.getId(), copy(order));
+            return order;
+        });
+        when(orderRepository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(stored.get(invocation.<Long>getArgument(0))).map(CheckoutPipelineTest::copy));
+        when(orderRepository.findByUsernameAndIdempotencyKey(anyString(), anyString())).thenReturn(Optional.empty());
+        when(orderRepository.findFirstByUsernameAndStatusInOrderByIdDesc(anyString(), anyList()))
+                .thenReturn(Optional.empty());
+        when(orderRepository.renewLease(anyLong(), any(Date.class))).thenReturn(1);
+        when(orderRepository.startCommit(anyLong(), anyString(), any(Date.class))).thenReturn(1);
+        when(orderRepository.settleCommit(anyLong(), any(OrderStatus.class), any(), any(Date.class))).thenReturn(1);
+
+        when(cartClient.getCart(any())).thenReturn(Arrays.asList(cartLine(1L, 2), cartLine(2L, 1)));
+        Map<Long, ProductSnapshot> products = new LinkedHashMap<>();
+        products.put(1L, product(1L, 10.0));
+        products.put(2L, product(2L, 4.0));
+        when(productClient.getProducts(anyList(), any())).thenReturn(products);
+        Reservation reservation = new Reservation();
+        reservation.setId("r1");
+        when(productClient.reserve(anyList(), anyLong(), any())).thenReturn(reservation);
+    }
+
+    @AfterEach
+    void teardown() {
+        pipeline.shutdown();
+    }
+
+    private static Order copy(Order source) {
+        Order order = new Order();
+        order.setId(source.getId());
+        order.setUsername(source.getUsername());
+        order.setStatus(source.getStatus());
+        order.setReservationId(source.getReservationId());
+        order.setLeaseExpiresAt(source.getLeaseExpiresAt());
+        order.setCreatedAt(source.getCreatedAt());
+        order.getItems().addAll(source.getItems());
+        return order;
+    }
+
+    private static CartLine cartLine(Long productId, int quantity) {
+        CartLine line = new CartLine();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private static ProductSnapshot product(Long id, double price) {
+        ProductSnapshot product = new ProductSnapshot();
+        product.setId(id);
+        product.setName("p" + id);
+        product.setPrice(price);
+        return product;
+    }
+
+    private static Map<Long, Integer> lines(Object... productAndQuantity) {
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (int i = 0; i < productAndQuantity.length; i += 2) {
+            lines.put((Long) productAndQuantity[i], (Integer) productAndQuantity[i + 1]);
+        }
+        return lines;
+    }
+
+    // The creation event is published after the order is queued, so it may land after the worker's
+    private List<String> workerTransitions() {
+        List<String> worker = new ArrayList<>(transitions);
+        assertTrue(worker.remove("null->PENDING"), worker.toString());
+        return worker;
+    }
+
+    private Order submit(String idempotencyKey) {
+        return pipeline.submit("alice", CREDENTIALS, new CheckoutRequest(), idempotencyKey);
+    }
+
+    @Test
+    void testCommittedCheckoutIsConfirmedAndOnlyOrderedItemsLeaveTheCart() {
+        Order order = submit("k1");
+
+        verify(cartClient, timeout(WAIT_MS)).removeLines(eq(lines(1L, 2, 2L, 1)), eq(CREDENTIALS));
+        verify(orderRepository).startCommit(eq(order.getId()), eq("r1"), any(Date.class));
+        verify(productClient).commit("r1", CREDENTIALS);
+        verify(orderRepository).settleCommit(eq(order.getId()), eq(OrderStatus.CONFIRMED), isNull(), any(Date.class));
+        assertEquals(Arrays.asList("PENDING->COMMITTING", "COMMITTING->CONFIRMED"), workerTransitions());
+        // Priced from the catalog: 2 x 10 + 1 x 4
+        assertEquals(24.0, stored.get(order.getId()).getItems().stream()
+                .mapToDouble(item -> item.getUnitPrice() * item.getQuantity()).sum());
+    }
+
+    @Test
+    void testCartIsReadOnceWhenTheOrderIsSubmitted() {
+        submit("k1");
+
+        verify(cartClient, timeout(WAIT_MS)).removeLines(anyMap(), any());
+        verify(cartClient, times(1)).getCart(any());
+    }
+
+    @Test
+    void testRetryWithSameKeyReturnsTheExistingOrder() {
+        Order existing = new Order();
+        existing.setId(42L);
+        existing.setStatus(OrderStatus.COMMITTING);
+        when(orderRepository.findByUsernameAndIdempotencyKey("alice", "k1")).thenReturn(Optional.of(existing));
+
+        assertSame(existing, submit("k1"));
+        verify(cartClient, never()).getCart(any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void testRetryWithoutKeyReturnsTheCheckoutInFlight() {
+        Order inFlight = new Order();
+        inFlight.setId(7L);
+        when(orderRepository.findFirstByUsernameAndStatusInOrderByIdDesc(eq("alice"), anyList()))
+                .thenReturn(Optional.of(inFlight));
+
+        assertSame(inFlight, submit(null));
+        verify(cartClient, never()).getCart(any());
+    }
+
+    @Test
+    void testUnavailableCartRejectsTheCheckout() {
+        when(cartClient.getCart(any())).thenThrow(new ResourceAccessException("down"));
+
+        CheckoutFailedException e = assertThrows(CheckoutFailedException.class, () -> submit("k1"));
+        assertEquals("Cart is unavailable, please try again", e.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void testEmptyCartFails() {
+        when(cartClient.getCart(any())).thenReturn(Collections.emptyList());
+
+        submit("k1");
+
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, timeout(WAIT_MS).times(2)).save(saved.capture());
+        assertEquals(OrderStatus.FAILED, saved.getValue().getStatus());
+        assertEquals("Cart is empty", saved.getValue().getFailureReason());
+        verify(productClient, never()).reserve(anyList(), anyLong(), any());
+    }
+
+    @Test
+    void testOutOfStockFailsWithoutCommitting() {
+        when(productClient.reserve(anyList(), anyLong(), any()))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", null, null, null));
+
+        submit("k1");
+
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, timeout(WAIT_MS).times(2)).save(saved.capture());
+        assertEquals(OrderStatus.FAILED, saved.getValue().getStatus());
+        assertEquals("Not enough stock for one or more items", saved.getValue().getFailureReason());
+        verify(productClient, never()).commit(anyString(), any());
+        assertEquals(Collections.singletonList("PENDING->FAILED"), workerTransitions());
+    }
+
+    @Test
+    void testRejectedCommitFailsTheOrderAndKeepsTheCart() {
+        doThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+                .when(productClient).commit(anyString(), any());
+
+        Order order = submit("k1");
+
+        verify(orderRepository, timeout(WAIT_MS)).settleCommit(eq(order.getId()), eq(OrderStatus.FAILED),
+                anyString(), any(Date.class));
+        verify(cartClient, never()).removeLines(anyMap(), any());
+    }
+
+    @Test
+    void testUnansweredCommitStaysCommittingForTheSweep() {
+        doThrow(new ResourceAccessException("timeout")).when(productClient).commit(anyString(), any());
+
+        submit("k1");
+
+        verify(productClient, timeout(WAIT_MS).times(2)).commit(anyString(), any());
+        verify(orderRepository, never()).settleCommit(anyLong(), any(OrderStatus.class), any(), any(Date.class));
+        verify(cartClient, never()).removeLines(anyMap(), any());
+        assertEquals(Collections.singletonList("PENDING->COMMITTING"), workerTransitions());
+    }
+
+    @Test
+    void testOrderAlreadySettledElsewhereLeavesTheCartAlone() {
+        when(orderRepository.settleCommit(anyLong(), any(OrderStatus.class), any(), any(Date.class))).thenReturn(0);
+
+        submit("k1");
+
+        verify(orderRepository, timeout(WAIT_MS)).settleCommit(anyLong(), eq(OrderStatus.CONFIRMED), any(), any(Date.class));
+        verify(cartClient, never()).removeLines(anyMap(), any());
+    }
+
+    @Test
+    void testSweepReconcilesAnInterruptedCommitAsTheOwner() {
+        Order order = new Order();
+        order.setId(9L);
+        order.setUsername("bob");
+        order.setStatus(OrderStatus.COMMITTING);
+        order.setReservationId("r9");
+        OrderItem item = new OrderItem();
+        item.setProductId(3L);
+        item.setQuantity(4);
+        order.getItems().add(item);
+        when(orderRepository.findPendingWithExpiredLease(any(Date.class))).thenReturn(Collections.emptyList());
+        when(orderRepository.findCommittingWithExpiredLease(any(Date.class))).thenReturn(Collections.singletonList(order));
+        when(orderRepository.claimExpiredCommit(eq(9L), any(Date.class), any(Date.class))).thenReturn(1);
+        when(identityHeaderVerifier.sign(eq("bob"), anyLong())).thenReturn("signed-bob");
+
+        pipeline.sweepInterruptedCheckouts();
+
+        ArgumentCaptor<CallerCredentials> credentials = ArgumentCaptor.forClass(CallerCredentials.class);
+        verify(productClient).commit(eq("r9"), credentials.capture());
+        assertEquals("signed-bob", credentials.getValue().toHeaders().getFirst(IdentityHeaderVerifier.HEADER));
+        verify(orderRepository).settleCommit(eq(9L), eq(OrderStatus.CONFIRMED), isNull(), any(Date.class));
+        verify(cartClient).removeLines(eq(lines(3L, 4)), any());
+        assertEquals(Collections.singletonList("COMMITTING->CONFIRMED"), transitions);
+    }
+
+    @Test
+    void testSweepSkipsCommitsClaimedByAnotherInstance() {
+        Order order = new Order();
+        order.setId(9L);
+        order.setStatus(OrderStatus.COMMITTING);
+        order.setReservationId("r9");
+        when(orderRepository.findPendingWithExpiredLease(any(Date.class))).thenReturn(Collections.emptyList());
+        when(orderRepository.findCommittingWithExpiredLease(any(Date.class))).thenReturn(Collections.singletonList(order));
+        when(orderRepository.claimExpiredCommit(eq(9L), any(Date.class), any(Date.class))).thenReturn(0);
+
+        pipeline.sweepInterruptedCheckouts();
+
+        verify(productClient, never()).commit(anyString(), any());
+    }
+}
@@ -2,13 +2,19 @@ package com.simpleecom.productservice.config;
 
 import com.simpleecom.productservice.model.Product;
 import com.simpleecom.productservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -16,24 +22,24 @@ public class DataInitializer implements CommandLineRunner {
     public void run(String... args) throws Exception {
         try {
             long count = productRepository.count();
-            System.out.println("Current product count: " + count);
+            logger.info("Current product count: {}", count);
             
             if (count == 0) {
-                System.out.println("Adding sample products...");
-                productRepository.save(new Product(1000L, "iPhone 14", "Latest Apple smartphone with advanced features", 999.99, 50, "admin", null, "Electronics"));
-                productRepository.save(new Product(1001L, "Samsung Galaxy S23", "Premium Android smartphone", 899.99, 30, "admin", null, "Electronics"));
-                productRepository.save(new Product(1002L, "Pizza Margherita", "Classic Italian pizza with fresh ingredients", 12.99, 100, "admin", null, "Food"));
-                productRepository.save(new Product(1003L, "Nike Air Max", "Comfortable running shoes", 129.99, 25, "admin", null, "Clothing"));
-                productRepository.save(new Product(1004L, "Java Programming Book", "Complete guide to Java programming", 49.99, 15, "admin", null, "Books"));
-                productRepository.save(new Product(1005L, "Coffee Maker", "Automatic drip coffee maker", 79.99, 20, "admin", null, "Home"));
-                productRepository.save(new Product(1006L, "Football", "Professional quality football", 29.99, 40, "admin", null, "Sports"));
-                System.out.println("Sample products added successfully!");
+                logger.info("Adding sample products");
+                productRepository.saveAll(Arrays.asList(
+                        new Product(1000L, "iPhone 14", "Latest Apple smartphone with advanced features", 999.99, 50, "admin", null, "Electronics"),
+                        new Product(1001L, "Samsung Galaxy S23", "Premium Android smartphone", 899.99, 30, "admin", null, "Electronics"),
+                        new Product(1002L, "Pizza Margherita", "Classic Italian pizza with fresh ingredients", 12.99, 100, "admin", null, "Food"),
+                        new Product(1003L, "Nike Air Max", "Comfortable running shoes", 129.99, 25, "admin", null, "Clothing"),
+                        new Product(1004L, "Java Programming Book", "Complete guide to Java programming", 49.99, 15, "admin", null, "Books"),
+                        new Product(1005L, "Coffee Maker", "Automatic drip coffee maker", 79.99, 20, "admin", null, "Home"),
+                        new Product(1006L, "Football", "Professional quality football", 29.99, 40, "admin", null, "Sports")));
+                logger.info("Sample products added");
             } else {
-                System.out.println("Products already exist, skipping initialization.");
+                logger.info("Products already exist, skipping initialization");
             }
         } catch (Exception e) {
-            System.err.println("Error initializing data: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error initializing data", e);
         }
     }
 }
\ No newline at end of file
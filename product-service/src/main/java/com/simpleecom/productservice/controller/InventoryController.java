@@ -0,0 +1,59 @@
+package com.simpleecom.productservice.controller;
+
+import com.simpleecom.productservice.payload.Reservation;
+import com.simpleecom.productservice.payload.ReservationRequest;
+import com.simpleecom.productservice.service.InsufficientStockException;
+import com.simpleecom.productservice.service.InventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/inventory/reservations")
+@CrossOrigin(origins = "*")
+@PreAuthorize("isAuthenticated()")
+public class InventoryController {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @PostMapping
+    public ResponseEntity<?> reserve(@RequestBody ReservationRequest request, Authentication authentication) {
+        try {
+            Reservation reservation = inventoryService.reserve(authentication.getName(),
+                    request.getItems(), request.getTtlMs());
+            return ResponseEntity.ok(reservation);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(409).body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/commit")
+    public ResponseEntity<?> commit(@PathVariable String id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(inventoryService.commit(id, authentication.getName(), isAdmin(authentication)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body("Error: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> release(@PathVariable String id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(inventoryService.release(id, authentication.getName(), isAdmin(authentication)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body("Error: " + e.getMessage());
+        }
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") || a.getAuthority().equals("ROLE_SUPERADMIN"));
+    }
+}
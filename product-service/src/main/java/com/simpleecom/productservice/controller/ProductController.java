@@ -1,12 +1,28 @@
 package com.simpleecom.productservice.controller;
 
 import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.payload.BulkImportResult;
+import com.simpleecom.productservice.payload.CacheStats;
+import com.simpleecom.productservice.payload.ProductPage;
+import com.simpleecom.productservice.payload.StockAdjustment;
+import com.simpleecom.productservice.service.BulkFormat;
+import com.simpleecom.productservice.service.FacetQuery;
+import com.simpleecom.productservice.service.InsufficientStockException;
+import com.simpleecom.productservice.service.InventoryService;
+import com.simpleecom.productservice.service.ProductBulkService;
 import com.simpleecom.productservice.service.ProductService;
+import com.simpleecom.productservice.service.ProductSort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 @RestController
@@ -14,19 +30,25 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
     @PostMapping
     public ResponseEntity<?> addProduct(@RequestBody Product product) {
         try {
-            System.out.println("Adding product: " + product.getName());
             Product savedProduct = productService.addProduct(product);
-            System.out.println("Product saved with ID: " + savedProduct.getId());
+            logger.debug("Product {} saved with ID {}", savedProduct.getName(), savedProduct.getId());
             return ResponseEntity.ok(savedProduct);
         } catch (Exception e) {
-            System.err.println("Error adding product: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error adding product {}", product.getName(), e);
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
         }
     }
@@ -41,6 +63,21 @@ public class ProductController {
         }
     }
 
+    // Stock is not part of the PUT body; it moves by relative, conditional adjustments
+    @PostMapping("/{id}/stock")
+    @PreAuthorize("hasAnyRole('ADMIN','SUPERADMIN')")
+    public ResponseEntity<?> adjustStock(@PathVariable Long id, @RequestBody StockAdjustment adjustment) {
+        try {
+            return ResponseEntity.ok(inventoryService.adjustQuantity(id, adjustment.getDelta()));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(409).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
         try {
@@ -55,23 +92,110 @@ public class ProductController {
     public ResponseEntity<List<Product>> getAllProducts() {
         try {
             List<Product> products = productService.getAllProducts();
-            System.out.println("Found " + products.size() + " products");
+            logger.debug("Found {} products", products.size());
             return ResponseEntity.ok(products);
         } catch (Exception e) {
-            System.err.println("Error getting products: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error getting products", e);
             return ResponseEntity.status(500).build();
         }
     }
 
+    @GetMapping(params = "size")
+    public ResponseEntity<?> getProductPage(@RequestParam int size,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) String sort) {
+        try {
+            ProductPage page = productService.getProductPage(ProductSort.fromParam(sort), cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Product Service is running");
     }
 
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN','SUPERADMIN')")
+    public ResponseEntity<?> importProducts(HttpServletRequest request,
+                                            @RequestParam(required = false) String format,
+                                            Authentication authentication) {
+        try {
+            BulkFormat bulkFormat = BulkFormat.fromParam(format, request.getContentType());
+            String admin = authentication == null ? null : authentication.getName();
+            BulkImportResult result = productBulkService.importProducts(request.getInputStream(), bulkFormat, admin);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<?> exportProducts(@RequestParam(required = false) String format) {
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = BulkFormat.fromParam(format == null ? "csv" : format, null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+        StreamingResponseBody body = out -> productBulkService.exportProducts(out, bulkFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(bulkFormat.getMediaType()))
+                .header("Content-Disposition", "attachment; filename=products."
+                        + bulkFormat.name().toLowerCase())
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam("q") String query,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(productService.search(query, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<?> browse(@RequestParam(required = false) String category,
+                                    @RequestParam(required = false) Double minPrice,
+                                    @RequestParam(required = false) Double maxPrice,
+                                    @RequestParam(required = false) Boolean inStock,
+                                    @RequestParam(required = false) String admin,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            FacetQuery query = new FacetQuery(category, minPrice, maxPrice, inStock, admin);
+            return ResponseEntity.ok(productService.browse(query, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<?> getProductsByIds(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
     @PostMapping("/test")
     public ResponseEntity<?> testAdd(@RequestBody Product product) {
-        System.out.println("Test endpoint called with product: " + product.getName());
+        logger.debug("Test endpoint called with product: {}", product.getName());
         return ResponseEntity.ok("Test successful: " + product.getName());
     }
 
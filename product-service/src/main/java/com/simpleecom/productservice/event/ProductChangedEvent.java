@@ -0,0 +1,46 @@
+package com.simpleecom.productservice.event;
+
+import com.simpleecom.productservice.model.Product;
+
+/**
+ * Published by ProductService after a product has been written or removed so
+ * that in-memory views of the catalog can refresh themselves.
+ */
+public class ProductChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final Product product;
+
+    private ProductChangedEvent(Type type, Long productId, Product product) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(Type.SAVED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    // Null for DELETED events
+    public Product getProduct() {
+        return product;
+    }
+}
@@ -0,0 +1,44 @@
+package com.simpleecom.productservice.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_lease")
+@IdClass(InventoryLease.Key.class)
+public class InventoryLease {
+
+    @Id
+    private Long productId;
+
+    // products.inventory.owner-id of the instance holding the lease
+    @Id
+    private String owner;
+
+    // Taken off the product row and not yet sold or returned: the owner's unreserved
+    // units plus every open reservation it made for this product
+    @Column(nullable = false)
+    private int units;
+
+    @Column(nullable = false)
+    private long renewedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private String owner;
+    }
+}
@@ -0,0 +1,58 @@
+package com.simpleecom.productservice.model;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_reservation", indexes = {
+        @Index(name = "idx_inventory_reservation_status_expires", columnList = "status, expiresAt"),
+        @Index(name = "idx_inventory_reservation_status_settled", columnList = "status, settledAt")
+})
+public class InventoryReservation {
+
+    public enum Status {
+        RESERVED,
+        COMMITTED,
+        RELEASED
+    }
+
+    @Id
+    private String id;
+
+    private String username;
+
+    // Instance whose lease the units were taken from
+    @Column(nullable = false)
+    private String leaseOwner;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private long expiresAt;
+
+    // When the reservation left RESERVED; settled rows are kept a while so a repeated commit can be answered
+    private Long settledAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "inventory_reservation_line", joinColumns = @JoinColumn(name = "reservation_id"))
+    private List<InventoryReservationLine> items;
+}
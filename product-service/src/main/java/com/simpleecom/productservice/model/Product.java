@@ -1,23 +1,28 @@
 package com.simpleecom.productservice.model;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-
 @Entity
+// Keyset listing sorts: each page is an index range scan instead of a filesort
+@Table(indexes = {
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_category_id", columnList = "category, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
+    // Assigned by ProductIdAllocator rather than the database
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String name;
@@ -26,6 +31,8 @@ public class Product {
 
     private double price;
 
+    // Only moved by conditional UPDATEs (inventory leases, stock adjustments), never by saving the entity
+    @Column(updatable = false)
     private int quantity;
 
     private String adminUsername; // Added field to link product to admin user
@@ -0,0 +1,25 @@
+package com.simpleecom.productservice.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "product_id_sequence")
+public class ProductIdSequence {
+
+    @Id
+    private String name;
+
+    // First id not yet handed out to any product-service instance
+    @Column(nullable = false)
+    private long nextValue;
+}
@@ -0,0 +1,17 @@
+package com.simpleecom.productservice.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int size;
+    private double hitRate;
+}
@@ -0,0 +1,40 @@
+package com.simpleecom.productservice.payload;
+
+import com.simpleecom.productservice.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResult {
+
+    private int total;
+
+    private int page;
+
+    private int size;
+
+    private List<Product> items;
+
+    // Counts honour every filter except category
+    private Map<String, Integer> categories;
+
+    // Counts honour every filter except the price range
+    private List<PriceBucket> priceBuckets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private double min;
+        // Null for the open-ended top bucket
+        private Double max;
+        private int count;
+    }
+}
@@ -0,0 +1,20 @@
+package com.simpleecom.productservice.payload;
+
+import com.simpleecom.productservice.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPage {
+
+    private List<Product> items;
+
+    // Opaque cursor for the next slice, null when this is the last page
+    private String nextCursor;
+}
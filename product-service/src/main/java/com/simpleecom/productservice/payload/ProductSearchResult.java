@@ -0,0 +1,25 @@
+package com.simpleecom.productservice.payload;
+
+import com.simpleecom.productservice.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResult {
+
+    private String query;
+
+    private int total;
+
+    private int page;
+
+    private int size;
+
+    private List<Product> items;
+}
@@ -0,0 +1,21 @@
+package com.simpleecom.productservice.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reservation {
+
+    private String id;
+
+    private String username;
+
+    private List<ReservationLine> items;
+
+    private long expiresAt;
+}
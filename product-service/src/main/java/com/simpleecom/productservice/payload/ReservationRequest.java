@@ -0,0 +1,16 @@
+package com.simpleecom.productservice.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ReservationRequest {
+
+    private List<ReservationLine> items;
+
+    // Optional; capped at products.inventory.max-ttl-ms
+    private Long ttlMs;
+}
@@ -0,0 +1,14 @@
+package com.simpleecom.productservice.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustment {
+
+    // Units to add; negative to remove
+    private int delta;
+}
@@ -0,0 +1,44 @@
+package com.simpleecom.productservice.repository;
+
+import com.simpleecom.productservice.model.InventoryLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryLeaseRepository extends JpaRepository<InventoryLease, InventoryLease.Key> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE InventoryLease l SET l.units = l.units + :delta, l.renewedAt = :now "
+            + "WHERE l.productId = :productId AND l.owner = :owner")
+    int addUnits(@Param("productId") Long productId, @Param("owner") String owner,
+                 @Param("delta") int delta, @Param("now") long now);
+
+    // Leaves renewedAt alone: commits and releases from other instances must not keep a dead owner's lease alive
+    @Modifying
+    @Transactional
+    @Query("UPDATE InventoryLease l SET l.units = l.units - :units WHERE l.productId = :productId AND l.owner = :owner")
+    int subtractUnits(@Param("productId") Long productId, @Param("owner") String owner, @Param("units") int units);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE InventoryLease l SET l.renewedAt = :now WHERE l.owner = :owner")
+    int renew(@Param("owner") String owner, @Param("now") long now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM InventoryLease l WHERE l.productId = :productId AND l.owner = :owner")
+    Optional<InventoryLease> findForUpdate(@Param("productId") Long productId, @Param("owner") String owner);
+
+    List<InventoryLease> findByOwner(String owner);
+
+    List<InventoryLease> findByOwnerNotAndRenewedAtLessThan(String owner, long cutoff);
+}
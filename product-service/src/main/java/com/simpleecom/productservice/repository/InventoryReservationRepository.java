@@ -0,0 +1,39 @@
+package com.simpleecom.productservice.repository;
+
+import com.simpleecom.productservice.model.InventoryReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, String> {
+
+    // Only one of commit, release and expiry can move a reservation out of RESERVED; pass RESERVED as reserved
+    @Modifying
+    @Transactional
+    @Query("UPDATE InventoryReservation r SET r.status = :status, r.settledAt = :now "
+            + "WHERE r.id = :id AND r.status = :reserved")
+    int settle(@Param("id") String id, @Param("reserved") InventoryReservation.Status reserved,
+               @Param("status") InventoryReservation.Status status, @Param("now") long now);
+
+    @Query("SELECT r.status FROM InventoryReservation r WHERE r.id = :id")
+    InventoryReservation.Status findStatusById(@Param("id") String id);
+
+    @Query("SELECT COALESCE(SUM(i.quantity), 0) FROM InventoryReservation r JOIN r.items i "
+            + "WHERE r.leaseOwner = :owner AND i.productId = :productId "
+            + "AND r.status = :reserved")
+    long sumReserved(@Param("owner") String owner, @Param("productId") Long productId,
+                     @Param("reserved") InventoryReservation.Status reserved);
+
+    List<InventoryReservation> findByStatusAndExpiresAtLessThanEqual(InventoryReservation.Status status, long now,
+                                                                     Pageable pageable);
+
+    List<InventoryReservation> findByStatusNotAndSettledAtLessThan(InventoryReservation.Status status, long cutoff,
+                                                                   Pageable pageable);
+}
@@ -0,0 +1,19 @@
+package com.simpleecom.productservice.repository;
+
+import com.simpleecom.productservice.model.ProductIdSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface ProductIdSequenceRepository extends JpaRepository<ProductIdSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductIdSequence s WHERE s.name = :name")
+    Optional<ProductIdSequence> findForUpdate(@Param("name") String name);
+}
@@ -1,12 +1,68 @@
 package com.simpleecom.productservice.repository;
 
 import com.simpleecom.productservice.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByAdminUsername(String adminUsername);
+
+    @Query("SELECT MAX(p.id) FROM Product p")
+    Long findMaxId();
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.quantity FROM Product p WHERE p.id = :id")
+    Integer findQuantityById(@Param("id") Long id);
+
+    // Conditional decrement: touches no row, and returns 0, if stock is short
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :units WHERE p.id = :id AND p.quantity >= :units")
+    int decrementQuantity(@Param("id") Long id, @Param("units") int units);
+
+    // Relative change that never takes the row below zero; returns 0 if it would
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :delta WHERE p.id = :id AND p.quantity + :delta >= 0")
+    int adjustQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+    // Keyset pagination: each query seeks past the last row of the previous
+    // slice instead of using OFFSET, and Pageable only supplies the LIMIT.
+
+    List<Product> findByOrderByIdAsc(Pageable pageable);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p ORDER BY p.price ASC, p.id ASC")
+    List<Product> findFirstPriceSlice(Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.price > :price OR (p.price = :price AND p.id > :id) "
+            + "ORDER BY p.price ASC, p.id ASC")
+    List<Product> findPriceSliceAfter(@Param("price") double price, @Param("id") Long id, Pageable pageable);
+
+    // Category order lists uncategorised products first, paged by id, and
+    // then the rest by (category, id); neither part wraps the column in a function
+
+    List<Product> findByCategoryIsNullOrderByIdAsc(Pageable pageable);
+
+    List<Product> findByCategoryIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.category IS NOT NULL ORDER BY p.category ASC, p.id ASC")
+    List<Product> findFirstCategorySlice(Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.category > :category "
+            + "OR (p.category = :category AND p.id > :id) "
+            + "ORDER BY p.category ASC, p.id ASC")
+    List<Product> findCategorySliceAfter(@Param("category") String category, @Param("id") Long id, Pageable pageable);
 }
@@ -1,5 +1,7 @@
 package com.simpleecom.productservice.security;
 
+import com.simpleecom.common.security.IdentityHeaderVerifier;
+import com.simpleecom.common.security.TokenVerificationMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -18,7 +20,6 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -26,43 +27,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private IdentityHeaderVerifier identityVerifier;
+
+    @Autowired
+    private TokenVerificationMetrics verificationMetrics;
+
     @SuppressWarnings("null")
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-                Claims claims = Jwts.parser()
-                        .setSigningKey(jwtUtil.getJwtSecret())
-                        .parseClaimsJws(jwt)
-                        .getBody();
-
-                String username = claims.getSubject();
-
-                @SuppressWarnings("unchecked")
-                List<String> roles = claims.get("roles", List.class);
-
-                if (roles == null) {
-                    roles = java.util.Collections.emptyList();
+            // Identity already verified by the gateway; the bearer token is only a fallback
+            // for direct service-to-service calls
+            String header = request.getHeader(IdentityHeaderVerifier.HEADER);
+            long start = System.nanoTime();
+            IdentityHeaderVerifier.Identity identity = identityVerifier.verify(header);
+            if (header != null) {
+                verificationMetrics.recordIdentity(start, identity != null);
+            }
+            if (identity != null) {
+                authenticate(request, identity.getUsername(), identity.getAuthorities());
+            } else {
+                String jwt = parseJwt(request);
+                start = System.nanoTime();
+                VerifiedTokenCache.VerifiedToken verified = jwt == null ? null : verify(jwt);
+                if (jwt != null) {
+                    verificationMetrics.recordJwt(start, verified != null);
+                }
+                if (verified != null) {
+                    authenticate(request, verified.getUsername(), verified.getAuthorities());
                 }
-
-                List<SimpleGrantedAuthority> authorities = roles.stream()
-                        .map(role -> {
-                            if (role.startsWith("ROLE_")) {
-                                return new SimpleGrantedAuthority(role);
-                            } else {
-                                return new SimpleGrantedAuthority("ROLE_" + role);
-                            }
-                        })
-                        .collect(Collectors.toList());
-
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
@@ -71,6 +70,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(HttpServletRequest request, String username, List<SimpleGrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(username, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private VerifiedTokenCache.VerifiedToken verify(String jwt) {
+        VerifiedTokenCache.VerifiedToken verified = tokenCache.get(jwt);
+        if (verified != null) {
+            return verified;
+        }
+
+        Claims claims = jwtUtil.parseClaims(jwt);
+        if (claims == null || claims.getExpiration() == null) {
+            return null;
+        }
+
+        String username = claims.getSubject();
+
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+
+        if (roles == null) {
+            roles = java.util.Collections.emptyList();
+        }
+
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(role -> {
+                    if (role.startsWith("ROLE_")) {
+                        return new SimpleGrantedAuthority(role);
+                    } else {
+                        return new SimpleGrantedAuthority("ROLE_" + role);
+                    }
+                })
+                .collect(Collectors.toList());
+
+        verified = new VerifiedTokenCache.VerifiedToken(username, authorities, claims.getExpiration().getTime());
+        tokenCache.put(jwt, verified);
+        return verified;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
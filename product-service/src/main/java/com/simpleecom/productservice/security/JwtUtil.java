@@ -1,10 +1,14 @@
 package com.simpleecom.productservice.security;
 
+import com.simpleecom.common.logging.LogSampler;
 import io.jsonwebtoken.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.springframework.security.core.Authentication;
 // import com.simpleecom.productservice.security.UserDetailsImpl;
@@ -13,6 +17,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 @Component
 public class JwtUtil {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+
+    // Bad tokens arrive at request rate; a few per window are enough to notice them
+    private static final LogSampler INVALID_TOKEN_LOG = new LogSampler(5, 10, TimeUnit.SECONDS);
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -45,20 +54,31 @@ public String generateJwtToken(Authentication authentication) {
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    // Verifies the token once and returns its claims, or null when it is not valid
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-            return true;
+            return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
-            System.err.println("Invalid JWT signature: " + e.getMessage());
+            logInvalid("Invalid JWT signature", e);
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            logInvalid("Invalid JWT token", e);
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            logInvalid("JWT token is expired", e);
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            logInvalid("JWT token is unsupported", e);
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            logInvalid("JWT claims string is empty", e);
+        }
+        return null;
+    }
+
+    private void logInvalid(String reason, RuntimeException e) {
+        long suppressed = INVALID_TOKEN_LOG.acquire();
+        if (suppressed >= 0) {
+            logger.warn("{}: {} ({} similar suppressed)", reason, e.getMessage(), suppressed);
         }
-        return false;
     }
 }
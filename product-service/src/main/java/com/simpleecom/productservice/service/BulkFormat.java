@@ -0,0 +1,32 @@
+package com.simpleecom.productservice.service;
+
+public enum BulkFormat {
+    CSV("text/csv"),
+    JSONL("application/x-ndjson");
+
+    private final String mediaType;
+
+    BulkFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static BulkFormat fromParam(String format, String contentType) {
+        if (format != null && !format.isEmpty()) {
+            if (format.equalsIgnoreCase("csv")) {
+                return CSV;
+            }
+            if (format.equalsIgnoreCase("jsonl") || format.equalsIgnoreCase("ndjson")) {
+                return JSONL;
+            }
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        if (contentType != null && (contentType.contains("ndjson") || contentType.contains("jsonl"))) {
+            return JSONL;
+        }
+        return CSV;
+    }
+}
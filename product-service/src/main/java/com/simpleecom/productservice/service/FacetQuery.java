@@ -0,0 +1,38 @@
+package com.simpleecom.productservice.service;
+
+public class FacetQuery {
+
+    private final String category;
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final Boolean inStock;
+    private final String adminUsername;
+
+    public FacetQuery(String category, Double minPrice, Double maxPrice, Boolean inStock, String adminUsername) {
+        this.category = category;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.inStock = inStock;
+        this.adminUsername = adminUsername;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public String getAdminUsername() {
+        return adminUsername;
+    }
+}
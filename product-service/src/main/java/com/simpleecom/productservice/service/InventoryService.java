@@ -0,0 +1,527 @@
+package com.simpleecom.productservice.service;
+
+import com.simpleecom.common.logging.LogSampler;
+import com.simpleecom.productservice.event.ProductChangedEvent;
+import com.simpleecom.productservice.model.InventoryLease;
+import com.simpleecom.productservice.model.InventoryReservation;
+import com.simpleecom.productservice.model.InventoryReservationLine;
+import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.payload.Reservation;
+import com.simpleecom.productservice.payload.ReservationLine;
+import com.simpleecom.productservice.repository.InventoryLeaseRepository;
+import com.simpleecom.productservice.repository.InventoryReservationRepository;
+import com.simpleecom.productservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserve / commit / release on top of per-product leases. A lease is a chunk
+ * of units already taken off the product row with a conditional decrement;
+ * reservations are served from the lease in memory and only go back to the
+ * database to claim the next chunk. Units are therefore never promised unless
+ * the row had them, and a burst of orders for one product costs one UPDATE per
+ * chunk instead of one row lock per order. Reconcile hands unused units of
+ * idle leases back to the row.
+ * <p>
+ * Leases and reservations are also recorded in inventory_lease and
+ * inventory_reservation, so any instance can commit or release a reservation
+ * and nothing is lost with the instance that made it. Each instance renews its
+ * leases on a heartbeat; leases left behind by a crashed instance are handed
+ * back to the product row by its first heartbeat after a restart, or by any
+ * other instance once they go unrenewed for products.inventory.lease-orphan-ms.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    // With the database down every stocked product fails on every reconcile pass
+    private static final LogSampler RECONCILE_FAILURE_LOG = new LogSampler(10, 60, TimeUnit.SECONDS);
+
+    private static final int SWEEP_PAGE_SIZE = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryLeaseRepository leaseRepository;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${products.inventory.stripes:8}")
+    private int stripes;
+
+    @Value("${products.inventory.lease-chunk:50}")
+    private int leaseChunk;
+
+    @Value("${products.inventory.reservation-ttl-ms:600000}")
+    private long defaultTtlMs;
+
+    @Value("${products.inventory.max-ttl-ms:1800000}")
+    private long maxTtlMs;
+
+    // Defaults to host:port. Must be stable across restarts so an instance settles its own leftover leases,
+    // and unique per instance, so set it when several instances share a host with server.port 0.
+    @Value("${products.inventory.owner-id:}")
+    private String ownerId;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${products.inventory.lease-orphan-ms:60000}")
+    private long leaseOrphanMs;
+
+    @Value("${products.inventory.settled-retention-ms:86400000}")
+    private long settledRetentionMs;
+
+    private final Map<Long, StripedStock> stock = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    // Last successful heartbeat; past half the orphan timeout the local leases may be reclaimed by others.
+    // Starts at zero so nothing is reserved before the first heartbeat has settled leftover leases.
+    private volatile long lastRenewed;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (ownerId == null || ownerId.trim().isEmpty()) {
+            ownerId = hostName() + ":" + serverPort;
+        }
+    }
+
+    public Reservation reserve(String username, List<ReservationLine> items, Long ttlMs) {
+        Map<Long, Integer> lines = mergeLines(items);
+        if (System.currentTimeMillis() - lastRenewed > leaseOrphanMs / 2) {
+            throw new IllegalStateException("Inventory leases could not be renewed; try again shortly");
+        }
+        List<Map.Entry<Long, Integer>> taken = new ArrayList<>(lines.size());
+        Set<Long> claimed = new LinkedHashSet<>();
+        InventoryReservation reservation;
+        try {
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                if (!take(line.getKey(), counterFor(line.getKey()), line.getValue(), claimed)) {
+                    throw new InsufficientStockException(line.getKey());
+                }
+                taken.add(line);
+            }
+
+            long ttl = ttlMs == null || ttlMs <= 0 ? defaultTtlMs : Math.min(ttlMs, maxTtlMs);
+            List<InventoryReservationLine> reserved = new ArrayList<>(lines.size());
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                reserved.add(new InventoryReservationLine(line.getKey(), line.getValue()));
+            }
+            reservation = reservationRepository.save(new InventoryReservation(UUID.randomUUID().toString(),
+                    username, ownerId, InventoryReservation.Status.RESERVED,
+                    System.currentTimeMillis() + ttl, null, reserved));
+        } catch (RuntimeException e) {
+            for (Map.Entry<Long, Integer> line : taken) {
+                giveBack(line.getKey(), line.getValue());
+            }
+            throw e;
+        } finally {
+            claimed.forEach(this::publishChanged);
+        }
+        return toPayload(reservation);
+    }
+
+    /**
+     * Marks the reservation sold and takes its units out of the lease they came
+     * from. Committing an already committed reservation returns it again, so a
+     * caller that lost the first response can safely retry.
+     */
+    public Reservation commit(String reservationId, String username, boolean privileged) {
+        InventoryReservation reservation = load(reservationId, username, privileged);
+        if (reservation.getStatus() == InventoryReservation.Status.COMMITTED) {
+            return toPayload(reservation);
+        }
+        if (reservation.getStatus() != InventoryReservation.Status.RESERVED
+                || reservation.getExpiresAt() <= System.currentTimeMillis()) {
+            throw notFound(reservationId);
+        }
+        Boolean committed = transactionTemplate.execute(status -> {
+            if (reservationRepository.settle(reservationId, InventoryReservation.Status.RESERVED,
+                    InventoryReservation.Status.COMMITTED, System.currentTimeMillis()) == 0) {
+                return false;
+            }
+            for (InventoryReservationLine line : reservation.getItems()) {
+                leaseRepository.subtractUnits(line.getProductId(), reservation.getLeaseOwner(), line.getQuantity());
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(committed)) {
+            // Lost to a concurrent commit (fine, same outcome) or to release/expiry
+            if (reservationRepository.findStatusById(reservationId) != InventoryReservation.Status.COMMITTED) {
+                throw notFound(reservationId);
+            }
+            return toPayload(reservation);
+        }
+        for (InventoryReservationLine line : reservation.getItems()) {
+            publishChanged(line.getProductId());
+        }
+        return toPayload(reservation);
+    }
+
+    public Reservation release(String reservationId, String username, boolean privileged) {
+        InventoryReservation reservation = load(reservationId, username, privileged);
+        if (reservation.getStatus() != InventoryReservation.Status.RESERVED || !settleAndReturn(reservation)) {
+            throw notFound(reservationId);
+        }
+        return toPayload(reservation);
+    }
+
+    @Scheduled(fixedDelayString = "${products.inventory.expiry-sweep-ms:5000}")
+    public void expireReservations() {
+        long now = System.currentTimeMillis();
+        try {
+            for (InventoryReservation reservation : reservationRepository.findByStatusAndExpiresAtLessThanEqual(
+                    InventoryReservation.Status.RESERVED, now, PageRequest.of(0, SWEEP_PAGE_SIZE))) {
+                settleAndReturn(reservation);
+            }
+            List<InventoryReservation> settled = reservationRepository.findByStatusNotAndSettledAtLessThan(
+                    InventoryReservation.Status.RESERVED, now - settledRetentionMs, PageRequest.of(0, SWEEP_PAGE_SIZE));
+            if (!settled.isEmpty()) {
+                reservationRepository.deleteAll(settled);
+            }
+        } catch (RuntimeException e) {
+            long suppressed = RECONCILE_FAILURE_LOG.acquire();
+            if (suppressed >= 0) {
+                logger.error("Reservation expiry sweep failed: {} ({} similar suppressed)", e.getMessage(), suppressed);
+            }
+        }
+    }
+
+    /**
+     * Adds delta units to the product row, refusing to take it below zero.
+     * The local lease goes back to the row first, so a decrease also covers
+     * units that were leased but not yet reserved.
+     */
+    public Product adjustQuantity(Long productId, int delta) {
+        StripedStock counter = stock.get(productId);
+        if (counter == null) {
+            applyAdjustment(productId, delta);
+        } else {
+            synchronized (counter) {
+                returnLease(productId, counter);
+                applyAdjustment(productId, delta);
+            }
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found with id " + productId));
+        eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+        return product;
+    }
+
+    // Unreserved units this instance holds on lease; available stock is the row quantity plus these
+    public long leasedUnits(Long productId) {
+        StripedStock counter = stock.get(productId);
+        return counter == null ? 0 : counter.available();
+    }
+
+    @Scheduled(fixedDelayString = "${products.inventory.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        reconcile(false);
+    }
+
+    @PreDestroy
+    public void returnLeases() {
+        reconcile(true);
+    }
+
+    /**
+     * Renews this instance's leases and reclaims those other instances stopped
+     * renewing. On the first run, and after any gap long enough for others to
+     * have reclaimed ours, the local leases are dropped and this instance's
+     * rows are settled against its open reservations instead of trusted.
+     */
+    @Scheduled(fixedDelayString = "${products.inventory.lease-heartbeat-ms:10000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            leaseRepository.renew(ownerId, now);
+            if (now - lastRenewed > leaseOrphanMs) {
+                for (StripedStock counter : stock.values()) {
+                    synchronized (counter) {
+                        counter.drain();
+                    }
+                }
+                for (InventoryLease lease : leaseRepository.findByOwner(ownerId)) {
+                    reclaim(lease);
+                }
+            }
+            lastRenewed = now;
+            for (InventoryLease lease : leaseRepository.findByOwnerNotAndRenewedAtLessThan(ownerId, now - leaseOrphanMs)) {
+                reclaim(lease);
+            }
+        } catch (RuntimeException e) {
+            long suppressed = RECONCILE_FAILURE_LOG.acquire();
+            if (suppressed >= 0) {
+                logger.error("Inventory lease heartbeat failed: {} ({} similar suppressed)", e.getMessage(), suppressed);
+            }
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            stock.remove(event.getProductId());
+        }
+    }
+
+    // Hot leases keep their units for the next interval; idle ones (or all, on shutdown) go back to the row
+    private void reconcile(boolean all) {
+        for (Map.Entry<Long, StripedStock> entry : stock.entrySet()) {
+            StripedStock counter = entry.getValue();
+            boolean returned = false;
+            try {
+                synchronized (counter) {
+                    boolean hot = counter.claimedSinceReconcile;
+                    counter.claimedSinceReconcile = false;
+                    if (all || !hot) {
+                        returned = returnLease(entry.getKey(), counter);
+                    }
+                }
+            } catch (RuntimeException e) {
+                long suppressed = RECONCILE_FAILURE_LOG.acquire();
+                if (suppressed >= 0) {
+                    logger.error("Inventory reconcile failed for product {}: {} ({} similar suppressed)",
+                            entry.getKey(), e.getMessage(), suppressed);
+                }
+                continue;
+            }
+            if (returned) {
+                publishChanged(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Takes units from the lease, claiming another chunk from the product row
+     * when the lease is short. Claims are conditional on the row holding the
+     * units, so a failed claim means the product is really out of stock.
+     */
+    private boolean take(Long productId, StripedStock counter, int units, Set<Long> claimed) {
+        if (counter.tryTake(units)) {
+            return true;
+        }
+        synchronized (counter) {
+            while (!counter.tryTake(units)) {
+                long shortfall = units - counter.available();
+                if (shortfall <= 0) {
+                    continue;
+                }
+                int chunk = (int) Math.max(shortfall, leaseChunk);
+                if (claim(productId, chunk)) {
+                    counter.put(chunk);
+                } else if (chunk > shortfall && claim(productId, (int) shortfall)) {
+                    counter.put(shortfall);
+                } else {
+                    return false;
+                }
+                counter.claimedSinceReconcile = true;
+                claimed.add(productId);
+            }
+            return true;
+        }
+    }
+
+    // Moves units from the product row into this instance's lease row in one transaction
+    private boolean claim(Long productId, int units) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (productRepository.decrementQuantity(productId, units) == 0) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (leaseRepository.addUnits(productId, ownerId, units, now) == 0) {
+                leaseRepository.save(new InventoryLease(productId, ownerId, units, now));
+            }
+            return true;
+        }));
+    }
+
+    // Caller holds the counter's monitor
+    private boolean returnLease(Long productId, StripedStock counter) {
+        long units = counter.drain();
+        if (units == 0) {
+            return false;
+        }
+        try {
+            Boolean rowExists = transactionTemplate.execute(status -> {
+                leaseRepository.subtractUnits(productId, ownerId, (int) units);
+                return productRepository.adjustQuantity(productId, (int) units) > 0;
+            });
+            if (!Boolean.TRUE.equals(rowExists)) {
+                // Row deleted; the lease goes with it
+                stock.remove(productId, counter);
+            }
+        } catch (RuntimeException e) {
+            counter.put(units);
+            throw e;
+        }
+        return true;
+    }
+
+    // Units the lease holds beyond its owner's open reservations go back to the product row
+    private void reclaim(InventoryLease orphan) {
+        Boolean returned = transactionTemplate.execute(status -> {
+            InventoryLease lease = leaseRepository.findForUpdate(orphan.getProductId(), orphan.getOwner()).orElse(null);
+            if (lease == null) {
+                return false;
+            }
+            int reserved = (int) reservationRepository.sumReserved(lease.getOwner(), lease.getProductId(),
+                    InventoryReservation.Status.RESERVED);
+            int free = lease.getUnits() - reserved;
+            if (free > 0) {
+                productRepository.adjustQuantity(lease.getProductId(), free);
+            }
+            if (reserved == 0) {
+                leaseRepository.delete(lease);
+            } else if (free > 0) {
+                lease.setUnits(reserved);
+            }
+            return free > 0;
+        });
+        if (Boolean.TRUE.equals(returned)) {
+            logger.info("Reclaimed inventory lease of {} on product {}", orphan.getOwner(), orphan.getProductId());
+            publishChanged(orphan.getProductId());
+        }
+    }
+
+    /**
+     * Moves a reservation to RELEASED and gives its units back: into the local
+     * lease when this instance made it, otherwise straight to the product row
+     * and out of the owner's lease. Returns false if commit, release or expiry
+     * already settled it elsewhere.
+     */
+    private boolean settleAndReturn(InventoryReservation reservation) {
+        boolean local = ownerId.equals(reservation.getLeaseOwner());
+        Boolean settled = transactionTemplate.execute(status -> {
+            if (reservationRepository.settle(reservation.getId(), InventoryReservation.Status.RESERVED,
+                    InventoryReservation.Status.RELEASED, System.currentTimeMillis()) == 0) {
+                return false;
+            }
+            if (!local) {
+                for (InventoryReservationLine line : reservation.getItems()) {
+                    leaseRepository.subtractUnits(line.getProductId(), reservation.getLeaseOwner(), line.getQuantity());
+                    productRepository.adjustQuantity(line.getProductId(), line.getQuantity());
+                }
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(settled)) {
+            return false;
+        }
+        for (InventoryReservationLine line : reservation.getItems()) {
+            if (local) {
+                stock.computeIfAbsent(line.getProductId(), id -> new StripedStock(stripes)).put(line.getQuantity());
+            }
+            publishChanged(line.getProductId());
+        }
+        return true;
+    }
+
+    private void applyAdjustment(Long productId, int delta) {
+        if (productRepository.adjustQuantity(productId, delta) == 0) {
+            if (productRepository.findQuantityById(productId) == null) {
+                throw new IllegalArgumentException("Product not found with id " + productId);
+            }
+            throw new InsufficientStockException(productId);
+        }
+    }
+
+    private InventoryReservation load(String reservationId, String username, boolean privileged) {
+        InventoryReservation reservation = reservationRepository.findById(reservationId).orElse(null);
+        if (reservation == null
+                || (!privileged && (username == null || !username.equals(reservation.getUsername())))) {
+            throw notFound(reservationId);
+        }
+        return reservation;
+    }
+
+    private IllegalArgumentException notFound(String reservationId) {
+        return new IllegalArgumentException("Reservation not found or expired: " + reservationId);
+    }
+
+    private void publishChanged(Long productId) {
+        productRepository.findById(productId)
+                .ifPresent(product -> eventPublisher.publishEvent(ProductChangedEvent.saved(product)));
+    }
+
+    private void giveBack(Long productId, int units) {
+        StripedStock counter = stock.get(productId);
+        if (counter != null) {
+            counter.put(units);
+        }
+    }
+
+    private StripedStock counterFor(Long productId) {
+        StripedStock counter = stock.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        if (productRepository.findQuantityById(productId) == null) {
+            throw new IllegalArgumentException("Product not found with id " + productId);
+        }
+        return stock.computeIfAbsent(productId, id -> new StripedStock(stripes));
+    }
+
+    private Reservation toPayload(InventoryReservation reservation) {
+        List<ReservationLine> items = new ArrayList<>(reservation.getItems().size());
+        for (InventoryReservationLine line : reservation.getItems()) {
+            items.add(new ReservationLine(line.getProductId(), line.getQuantity()));
+        }
+        return new Reservation(reservation.getId(), reservation.getUsername(), items, reservation.getExpiresAt());
+    }
+
+    private Map<Long, Integer> mergeLines(List<ReservationLine> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Reservation must contain at least one item");
+        }
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (ReservationLine item : items) {
+            if (item.getProductId() == null || item.getQuantity() < 1) {
+                throw new IllegalArgumentException("Each item needs a productId and a positive quantity");
+            }
+            lines.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return lines;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.simpleecom.productservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simpleecom.productservice.event.ProductChangedEvent;
+import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.payload.BulkImportResult;
+import com.simpleecom.productservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming catalog import and export. Import reads the body one record at
+ * a time and writes valid rows in JDBC batches; export pages through the
+ * catalog by id, so neither side holds the whole file or catalog in memory.
+ * Rows that carry an id are upserts, so re-importing an export updates the
+ * catalog in place; rows without one are inserted under a fresh id.
+ */
+@Service
+public class ProductBulkService {
+
+    private static final String INSERT_SQL = "INSERT INTO product "
+            + "(id, name, description, price, quantity, admin_username, image_url, category) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Stock is left alone: the quantity column belongs to inventory leases and stock adjustments
+    private static final String UPDATE_SQL = "UPDATE product "
+            + "SET name = ?, description = ?, price = ?, admin_username = ?, image_url = ?, category = ? "
+            + "WHERE id = ?";
+
+    // Bounds how far an unbalanced quote can pull following lines into one CSV record
+    private static final int MAX_CSV_RECORD_CHARS = 1 << 20;
+
+    private static final String[] CSV_COLUMNS =
+            {"id", "name", "description", "price", "quantity", "category", "imageUrl", "adminUsername"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductIdAllocator productIdAllocator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${products.bulk.batch-size:500}")
+    private int batchSize;
+
+    @Value("${products.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public BulkImportResult importProducts(InputStream body, BulkFormat format, String defaultAdmin) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        Map<String, Integer> header = null;
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            long recordLine = lineNumber;
+            if (format == BulkFormat.CSV) {
+                // A quoted field may contain line breaks; keep reading until its quotes balance
+                String next;
+                while (hasOpenQuote(line) && line.length() < MAX_CSV_RECORD_CHARS
+                        && (next = reader.readLine()) != null) {
+                    lineNumber++;
+                    line = line + '\n' + next;
+                }
+            }
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (format == BulkFormat.CSV && header == null) {
+                header = parseHeader(line);
+                continue;
+            }
+
+            Product product;
+            try {
+                product = format == BulkFormat.CSV ? parseCsvRow(line, header) : parseJsonRow(line);
+                validate(product);
+            } catch (IllegalArgumentException e) {
+                recordError(result, recordLine, e.getMessage());
+                continue;
+            }
+            if (product.getAdminUsername() == null) {
+                product.setAdminUsername(defaultAdmin);
+            }
+            batch.add(product);
+            batchLines.add(recordLine);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, batchLines, result);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, batchLines, result);
+        }
+        return result;
+    }
+
+    public void exportProducts(OutputStream out, BulkFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == BulkFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+
+        PageRequest pageable = PageRequest.of(0, batchSize);
+        List<Product> page = productRepository.findByOrderByIdAsc(pageable);
+        while (!page.isEmpty()) {
+            for (Product product : page) {
+                writer.write(format == BulkFormat.CSV ? toCsvRow(product) : objectMapper.writeValueAsString(product));
+                writer.write('\n');
+            }
+            writer.flush();
+            Long lastId = page.get(page.size() - 1).getId();
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, pageable);
+        }
+        writer.flush();
+    }
+
+    private void writeBatch(List<Product> batch, List<Long> batchLines, BulkImportResult result) {
+        Set<Long> existing = resolveIds(batch, batchLines, result);
+        List<Object[]> inserts = new ArrayList<>(batch.size());
+        List<Object[]> updates = new ArrayList<>();
+        for (Product product : batch) {
+            if (existing.contains(product.getId())) {
+                updates.add(toUpdateRow(product));
+            } else {
+                inserts.add(toRow(product));
+            }
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                }
+            });
+            result.setImported(result.getImported() + batch.size());
+            publishSaved(batch, existing);
+        } catch (DataAccessException e) {
+            // The batch rolled back as a whole; replay it row by row so only the bad rows are reported
+            for (int i = 0; i < batch.size(); i++) {
+                writeRow(batch.get(i), batchLines.get(i), result);
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    // Gives rows without an id a fresh one and returns which of the supplied ids already exist.
+    // A supplied id that is missing but was already issued (a deleted product, or one reserved
+    // by another instance) is rejected rather than inserted.
+    private Set<Long> resolveIds(List<Product> batch, List<Long> batchLines, BulkImportResult result) {
+        Set<Long> supplied = new HashSet<>();
+        for (Product product : batch) {
+            if (product.getId() == null) {
+                product.setId(productIdAllocator.nextId());
+            } else {
+                supplied.add(product.getId());
+            }
+        }
+        if (supplied.isEmpty()) {
+            return supplied;
+        }
+        Set<Long> existing = new HashSet<>(productRepository.findExistingIds(supplied));
+        long firstUnissued = productIdAllocator.reserveThrough(Collections.max(supplied));
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            Long id = batch.get(i).getId();
+            if (supplied.contains(id) && !existing.contains(id) && id < firstUnissued) {
+                recordError(result, batchLines.get(i), "unknown product id " + id);
+                batch.remove(i);
+                batchLines.remove(i);
+            }
+        }
+        return existing;
+    }
+
+    private void writeRow(Product product, long lineNumber, BulkImportResult result) {
+        boolean updated;
+        try {
+            updated = jdbcTemplate.update(UPDATE_SQL, toUpdateRow(product)) > 0;
+            if (!updated) {
+                jdbcTemplate.update(INSERT_SQL, toRow(product));
+            }
+        } catch (DataAccessException e) {
+            recordError(result, lineNumber, e.getMostSpecificCause().getMessage());
+            return;
+        }
+        result.setImported(result.getImported() + 1);
+        if (updated) {
+            productRepository.findById(product.getId())
+                    .ifPresent(saved -> eventPublisher.publishEvent(ProductChangedEvent.saved(saved)));
+        } else {
+            eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+        }
+    }
+
+    // Updated rows are re-read so listeners see their current stock, not the file's
+    private void publishSaved(List<Product> batch, Set<Long> updated) {
+        for (Product product : batch) {
+            if (!updated.contains(product.getId())) {
+                eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+            }
+        }
+        if (!updated.isEmpty()) {
+            for (Product saved : productRepository.findAllById(updated)) {
+                eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+            }
+        }
+    }
+
+    private Object[] toRow(Product product) {
+        return new Object[]{product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getQuantity(), product.getAdminUsername(), product.getImageUrl(), product.getCategory()};
+    }
+
+    private Object[] toUpdateRow(Product product) {
+        return new Object[]{product.getName(), product.getDescription(), product.getPrice(),
+                product.getAdminUsername(), product.getImageUrl(), product.getCategory(), product.getId()};
+    }
+
+    private void recordError(BulkImportResult result, long lineNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new BulkImportResult.RowError(lineNumber, message));
+        }
+    }
+
+    private void validate(Product product) {
+        if (product.getName() == null || product.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (Double.isNaN(product.getPrice()) || Double.isInfinite(product.getPrice())) {
+            throw new IllegalArgumentException("price must be a finite number");
+        }
+        if (product.getPrice() < 0) {
+            throw new IllegalArgumentException("price must not be negative");
+        }
+        if (product.getQuantity() < 0) {
+            throw new IllegalArgumentException("quantity must not be negative");
+        }
+        if (product.getId() != null && product.getId() <= 0) {
+            throw new IllegalArgumentException("id must be positive");
+        }
+    }
+
+    private Product parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, Product.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(), i);
+        }
+        if (!header.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must include a name column");
+        }
+        return header;
+    }
+
+    private Product parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> values = splitCsv(line);
+        Product product = new Product();
+        product.setName(column(values, header, "name"));
+        product.setDescription(column(values, header, "description"));
+        product.setCategory(column(values, header, "category"));
+        product.setImageUrl(column(values, header, "imageurl"));
+        product.setAdminUsername(column(values, header, "adminusername"));
+        try {
+            String id = column(values, header, "id");
+            product.setId(id == null ? null : Long.valueOf(id.trim()));
+            String price = column(values, header, "price");
+            product.setPrice(price == null ? 0 : Double.parseDouble(price));
+            String quantity = column(values, header, "quantity");
+            product.setQuantity(quantity == null ? 0 : Integer.parseInt(quantity));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number: " + e.getMessage());
+        }
+        return product;
+    }
+
+    private String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // Doubled quotes inside a quoted field count twice, so an odd total means a field is still open
+    private boolean hasOpenQuote(String record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 != 0;
+    }
+
+    // RFC 4180 style fields: quoted fields may contain commas, line breaks and doubled quotes
+    private List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String toCsvRow(Product product) {
+        Object[] values = {product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getQuantity(), product.getCategory(), product.getImageUrl(), product.getAdminUsername()};
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            if (values[i] != null) {
+                row.append(escapeCsv(values[i].toString()));
+            }
+        }
+        return row.toString();
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
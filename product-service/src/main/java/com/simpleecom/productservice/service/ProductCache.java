@@ -0,0 +1,179 @@
+package com.simpleecom.productservice.service;
+
+import com.simpleecom.productservice.event.ProductChangedEvent;
+import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.payload.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-through cache for single product lookups. Entries are held in LRU
+ * order, capped at products.cache.max-size and expire after
+ * products.cache.ttl-ms; writes refresh or drop entries via ProductChangedEvent.
+ * A read-through put carries the stamp taken before its database read and is
+ * dropped if a write to that product landed since, so a slow reader cannot
+ * re-cache a row the write already replaced.
+ * Entries hold their own copy of the product and get() hands out a fresh
+ * copy, so a caller mutating its result cannot change what others read.
+ * Invalidation is local to this instance: a write through another replica
+ * is only seen here once the entry expires, so products.cache.ttl-ms is
+ * the staleness bound across the cluster and is kept short on purpose.
+ * Hit, miss and eviction counts are also published as cache.* meters.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private static final int WRITE_STRIPES = 1024;
+
+    private final int maxSize;
+    private final long ttlMs;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final LinkedHashMap<Long, Entry> entries;
+
+    // Clock value of the latest write per id stripe; collisions only cost a skipped put
+    private final AtomicLong writeClock = new AtomicLong();
+    private final AtomicLongArray lastWrite = new AtomicLongArray(WRITE_STRIPES);
+
+    public ProductCache(@Value("${products.cache.max-size:10000}") int maxSize,
+                        @Value("${products.cache.ttl-ms:5000}") long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ProductCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Product get(Long id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(id);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return copyOf(entry.product);
+        }
+    }
+
+    // Take before reading from the database and pass to put()
+    public long readStamp() {
+        return writeClock.get();
+    }
+
+    public void put(Product product, long readStamp) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        Entry entry = new Entry(copyOf(product), System.currentTimeMillis() + ttlMs);
+        synchronized (entries) {
+            if (lastWrite.get(stripe(product.getId())) > readStamp) {
+                return;
+            }
+            entries.put(product.getId(), entry);
+        }
+    }
+
+    public void invalidate(Long id) {
+        synchronized (entries) {
+            markWritten(id);
+            entries.remove(id);
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            invalidate(event.getProductId());
+        } else {
+            refresh(event.getProduct());
+        }
+    }
+
+    // Only replaces products already cached, so bulk writes don't flush the hot set
+    private void refresh(Product product) {
+        synchronized (entries) {
+            markWritten(product.getId());
+            if (entries.containsKey(product.getId())) {
+                entries.put(product.getId(), new Entry(copyOf(product), System.currentTimeMillis() + ttlMs));
+            }
+        }
+    }
+
+    private void markWritten(Long id) {
+        lastWrite.accumulateAndGet(stripe(id), writeClock.incrementAndGet(), Math::max);
+    }
+
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getQuantity(), product.getAdminUsername(), product.getImageUrl(), product.getCategory());
+    }
+
+    private static int stripe(Long id) {
+        return (int) (id ^ (id >>> 32)) & (WRITE_STRIPES - 1);
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        double hitRate = lookups == 0 ? 0.0 : (double) hitCount / lookups;
+        return new CacheStats(hitCount, missCount, evictions.get(), size, hitRate);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", "products", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", "products", "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", "products")
+                .register(registry);
+        Gauge.builder("cache.size", this, cache -> cache.getStats().getSize())
+                .tag("cache", "products")
+                .register(registry);
+    }
+
+    private static class Entry {
+        private final Product product;
+        private final long expiresAt;
+
+        private Entry(Product product, long expiresAt) {
+            this.product = product;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
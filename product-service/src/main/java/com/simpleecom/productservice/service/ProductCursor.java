@@ -0,0 +1,95 @@
+package com.simpleecom.productservice.service;
+
+import com.simpleecom.productservice.model.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a sorted product listing. Encoded as an opaque URL-safe
+ * token holding the sort, the sort key of the last returned row and its id.
+ * Category keys are tagged so that a null category stays distinct from "".
+ */
+public class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_KEY = "-";
+    private static final String VALUE_KEY = "=";
+
+    private final ProductSort sort;
+    private final String key;
+    private final long id;
+
+    private ProductCursor(ProductSort sort, String key, long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static ProductCursor after(ProductSort sort, Product last) {
+        String key;
+        switch (sort) {
+            case PRICE:
+                key = Double.toString(last.getPrice());
+                break;
+            case CATEGORY:
+                key = last.getCategory() == null ? NULL_KEY : VALUE_KEY + last.getCategory();
+                break;
+            default:
+                key = "";
+        }
+        return new ProductCursor(sort, key, last.getId());
+    }
+
+    public static ProductCursor decode(String token, ProductSort expectedSort) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        // sort|id|key - key goes last since categories may contain the separator
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        ProductSort sort = ProductSort.fromParam(parts[0]);
+        if (sort != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + sort.name().toLowerCase());
+        }
+        try {
+            long id = Long.parseLong(parts[1]);
+            if (sort == ProductSort.PRICE) {
+                Double.parseDouble(parts[2]);
+            }
+            if (sort == ProductSort.CATEGORY && !parts[2].equals(NULL_KEY) && !parts[2].startsWith(VALUE_KEY)) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new ProductCursor(sort, parts[2], id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ProductSort getSort() {
+        return sort;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getPriceKey() {
+        return Double.parseDouble(key);
+    }
+
+    // Null while still paging through uncategorised products
+    public String getCategoryKey() {
+        return key.equals(NULL_KEY) ? null : key.substring(VALUE_KEY.length());
+    }
+}
@@ -0,0 +1,372 @@
+package com.simpleecom.productservice.service;
+
+import com.simpleecom.productservice.event.ProductChangedEvent;
+import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.payload.ProductFacetResult;
+import com.simpleecom.productservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitset view of the catalog for faceted browsing. Every product owns a slot;
+ * per-category, per-admin, per-price-bucket and in-stock bitsets record which
+ * slots qualify, so filters are bitwise ANDs and facet counts are
+ * cardinalities. Updated incrementally from ProductChangedEvent, which only
+ * covers this instance's writes, and rebuilt from the catalog every
+ * products.facets.rebuild-ms so other instances' writes and stock movements
+ * show up too.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private final double[] bucketBounds;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private long[] ids = new long[1024];
+    private double[] prices = new double[1024];
+    private String[] categories = new String[1024];
+    private String[] admins = new String[1024];
+    private int nextSlot;
+
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final Map<String, BitSet> byCategory = new TreeMap<>();
+    private final Map<String, BitSet> byAdmin = new HashMap<>();
+    private final BitSet[] byPriceBucket;
+    // Prices under the lowest bound, which no bucket reports
+    private final BitSet belowBuckets = new BitSet();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ids written through events while a rebuild runs, null otherwise; guarded by lock.
+    // Those writes are newer than whatever the rebuild read, so the rebuild leaves them alone.
+    private Set<Long> touchedDuringRebuild;
+
+    public ProductFacetIndex(@Value("${products.facets.price-buckets:0,25,50,100,250,500,1000}") double[] bucketBounds) {
+        this.bucketBounds = bucketBounds.clone();
+        Arrays.sort(this.bucketBounds);
+        this.byPriceBucket = new BitSet[this.bucketBounds.length];
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new BitSet();
+        }
+    }
+
+    // Slots are rewritten in place and ids the catalog no longer has are dropped at the end,
+    // so queries keep working while a rebuild runs
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${products.facets.rebuild-ms:60000}",
+            initialDelayString = "${products.facets.rebuild-ms:60000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Set<Long> seen = new HashSet<>();
+            PageRequest pageable = PageRequest.of(0, REBUILD_PAGE_SIZE);
+            List<Product> page = productRepository.findByOrderByIdAsc(pageable);
+            while (!page.isEmpty()) {
+                for (Product product : page) {
+                    seen.add(product.getId());
+                    index(product, true);
+                }
+                page = productRepository.findByIdGreaterThanOrderByIdAsc(page.get(page.size() - 1).getId(), pageable);
+            }
+            lock.writeLock().lock();
+            try {
+                for (Long id : new ArrayList<>(slotById.keySet())) {
+                    if (!seen.contains(id) && !touchedDuringRebuild.contains(id)) {
+                        removeLocked(id);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    public void index(Product product) {
+        index(product, false);
+    }
+
+    private void index(Product product, boolean fromRebuild) {
+        lock.writeLock().lock();
+        try {
+            if (!markWritten(product.getId(), fromRebuild)) {
+                return;
+            }
+            Integer slot = slotById.get(product.getId());
+            if (slot == null) {
+                slot = allocateSlot();
+                slotById.put(product.getId(), slot);
+            } else {
+                clearSlot(slot);
+            }
+            ids[slot] = product.getId();
+            prices[slot] = product.getPrice();
+            categories[slot] = product.getCategory();
+            admins[slot] = product.getAdminUsername();
+
+            live.set(slot);
+            // Units leased to this instance are still for sale even when the row reads zero
+            if (product.getQuantity() > 0 || inventoryService.leasedUnits(product.getId()) > 0) {
+                inStock.set(slot);
+            }
+            if (product.getCategory() != null) {
+                byCategory.computeIfAbsent(product.getCategory(), key -> new BitSet()).set(slot);
+            }
+            if (product.getAdminUsername() != null) {
+                byAdmin.computeIfAbsent(product.getAdminUsername(), key -> new BitSet()).set(slot);
+            }
+            priceBits(bucketOf(product.getPrice())).set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            markWritten(productId, false);
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long productId) {
+        Integer slot = slotById.remove(productId);
+        if (slot != null) {
+            clearSlot(slot);
+            freeSlots.push(slot);
+        }
+    }
+
+    // Called under the write lock; false when a rebuild row is older than an event already applied
+    private boolean markWritten(Long productId, boolean fromRebuild) {
+        if (touchedDuringRebuild == null) {
+            return true;
+        }
+        if (fromRebuild) {
+            return !touchedDuringRebuild.contains(productId);
+        }
+        touchedDuringRebuild.add(productId);
+        return true;
+    }
+
+    public FacetMatch query(FacetQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) live.clone();
+            if (query.getAdminUsername() != null) {
+                base.and(bitsOrEmpty(byAdmin.get(query.getAdminUsername())));
+            }
+            if (Boolean.TRUE.equals(query.getInStock())) {
+                base.and(inStock);
+            } else if (Boolean.FALSE.equals(query.getInStock())) {
+                base.andNot(inStock);
+            }
+
+            BitSet withCategory = (BitSet) base.clone();
+            if (query.getCategory() != null) {
+                withCategory.and(bitsOrEmpty(byCategory.get(query.getCategory())));
+            }
+            BitSet withPrice = filterPrice(base, query.getMinPrice(), query.getMaxPrice());
+            BitSet matches = filterPrice(withCategory, query.getMinPrice(), query.getMaxPrice());
+
+            Map<String, Integer> categoryCounts = new TreeMap<>();
+            for (Map.Entry<String, BitSet> entry : byCategory.entrySet()) {
+                int count = intersectionSize(withPrice, entry.getValue());
+                if (count > 0) {
+                    categoryCounts.put(entry.getKey(), count);
+                }
+            }
+
+            List<ProductFacetResult.PriceBucket> priceCounts = new ArrayList<>(bucketBounds.length);
+            for (int i = 0; i < bucketBounds.length; i++) {
+                Double upper = i + 1 < bucketBounds.length ? bucketBounds[i + 1] : null;
+                priceCounts.add(new ProductFacetResult.PriceBucket(bucketBounds[i], upper,
+                        intersectionSize(withCategory, byPriceBucket[i])));
+            }
+
+            long[] matchingIds = new long[matches.cardinality()];
+            int n = 0;
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                matchingIds[n++] = ids[slot];
+            }
+            Arrays.sort(matchingIds);
+            return new FacetMatch(matchingIds, categoryCounts, priceCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet filterPrice(BitSet source, Double min, Double max) {
+        if (min == null && max == null) {
+            return source;
+        }
+        double lower = min == null ? Double.NEGATIVE_INFINITY : min;
+        double upper = max == null ? Double.POSITIVE_INFINITY : max;
+
+        // Buckets wholly inside [lower, upper] are ORed in; only the (at most two) edge buckets are scanned
+        BitSet filtered = new BitSet();
+        List<BitSet> edges = new ArrayList<>(2);
+        for (int bucket = -1; bucket < bucketBounds.length; bucket++) {
+            double from = bucket < 0 ? Double.NEGATIVE_INFINITY : bucketBounds[bucket];
+            double to = bucket + 1 < bucketBounds.length ? bucketBounds[bucket + 1] : Double.POSITIVE_INFINITY;
+            if (to <= lower || from > upper) {
+                continue;
+            }
+            if (from >= lower && to <= upper) {
+                filtered.or(priceBits(bucket));
+            } else {
+                edges.add(priceBits(bucket));
+            }
+        }
+        filtered.and(source);
+
+        for (BitSet edge : edges) {
+            BitSet candidates = (BitSet) edge.clone();
+            candidates.and(source);
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                double price = prices[slot];
+                if (price >= lower && price <= upper) {
+                    filtered.set(slot);
+                }
+            }
+        }
+        return filtered;
+    }
+
+    private BitSet priceBits(int bucket) {
+        return bucket < 0 ? belowBuckets : byPriceBucket[bucket];
+    }
+
+    private int intersectionSize(BitSet a, BitSet b) {
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    private BitSet bitsOrEmpty(BitSet bits) {
+        return bits == null ? new BitSet() : bits;
+    }
+
+    private int bucketOf(double price) {
+        for (int i = bucketBounds.length - 1; i >= 0; i--) {
+            if (price >= bucketBounds[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (nextSlot == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            admins = Arrays.copyOf(admins, capacity);
+        }
+        return nextSlot++;
+    }
+
+    private void clearSlot(int slot) {
+        live.clear(slot);
+        inStock.clear(slot);
+        clearKeyed(byCategory, categories[slot], slot);
+        clearKeyed(byAdmin, admins[slot], slot);
+        priceBits(bucketOf(prices[slot])).clear(slot);
+        categories[slot] = null;
+        admins[slot] = null;
+    }
+
+    private void clearKeyed(Map<String, BitSet> bitsByKey, String key, int slot) {
+        if (key == null) {
+            return;
+        }
+        BitSet bits = bitsByKey.get(key);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                bitsByKey.remove(key);
+            }
+        }
+    }
+
+    public static class FacetMatch {
+        private final long[] ids;
+        private final Map<String, Integer> categoryCounts;
+        private final List<ProductFacetResult.PriceBucket> priceBuckets;
+
+        private FacetMatch(long[] ids, Map<String, Integer> categoryCounts,
+                           List<ProductFacetResult.PriceBucket> priceBuckets) {
+            this.ids = ids;
+            this.categoryCounts = categoryCounts;
+            this.priceBuckets = priceBuckets;
+        }
+
+        // Sorted ascending
+        public long[] getIds() {
+            return ids;
+        }
+
+        public Map<String, Integer> getCategoryCounts() {
+            return categoryCounts;
+        }
+
+        public List<ProductFacetResult.PriceBucket> getPriceBuckets() {
+            return priceBuckets;
+        }
+    }
+}
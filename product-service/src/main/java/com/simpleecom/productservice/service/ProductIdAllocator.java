@@ -0,0 +1,95 @@
+package com.simpleecom.productservice.service;
+
+import com.simpleecom.productservice.model.ProductIdSequence;
+import com.simpleecom.productservice.repository.ProductIdSequenceRepository;
+import com.simpleecom.productservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Hands out product ids from blocks reserved in the product_id_sequence
+ * table. Each reservation is a single row-locked update, so instances never
+ * overlap and the common case is an in-memory increment.
+ */
+@Component
+public class ProductIdAllocator {
+
+    private static final String SEQUENCE_NAME = "product";
+    private static final long FIRST_ID = 1000L;
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final ProductIdSequenceRepository sequenceRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private long next;
+    private long limit;
+
+    public ProductIdAllocator(ProductIdSequenceRepository sequenceRepository,
+                              ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${products.id.block-size:50}") int blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public synchronized long nextId() {
+        if (next >= limit) {
+            next = reserveBlock();
+            limit = next + blockSize;
+        }
+        return next++;
+    }
+
+    /**
+     * Moves the sequence past ids that were assigned outside the allocator,
+     * e.g. by a catalog import. Returns the first id the sequence had not
+     * handed to any instance before this call.
+     */
+    public long reserveThrough(long maxId) {
+        return advance(current -> Math.max(current, maxId + 1));
+    }
+
+    private long reserveBlock() {
+        return advance(current -> current + blockSize);
+    }
+
+    // Moves the locked sequence row from its current value to next(current) and returns the current value
+    private long advance(LongUnaryOperator next) {
+        DataIntegrityViolationException lastFailure = null;
+        for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS; attempt++) {
+            try {
+                Long start = transactionTemplate.execute(status -> {
+                    ProductIdSequence sequence = sequenceRepository.findForUpdate(SEQUENCE_NAME)
+                            .orElseGet(this::newSequence);
+                    long current = sequence.getNextValue();
+                    sequence.setNextValue(next.applyAsLong(current));
+                    sequenceRepository.save(sequence);
+                    return current;
+                });
+                return start;
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the sequence row first; lock it and retry
+                lastFailure = e;
+            }
+        }
+        throw new RuntimeException("Could not update the product id sequence", lastFailure);
+    }
+
+    private ProductIdSequence newSequence() {
+        // Seed past any ids assigned before the sequence table existed
+        Long maxId = productRepository.findMaxId();
+        long start = maxId == null ? FIRST_ID : Math.max(FIRST_ID, maxId + 1);
+        return new ProductIdSequence(SEQUENCE_NAME, start);
+    }
+}
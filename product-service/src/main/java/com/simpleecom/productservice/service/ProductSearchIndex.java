@@ -0,0 +1,310 @@
+package com.simpleecom.productservice.service;
+
+import com.simpleecom.productservice.event.ProductChangedEvent;
+import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over product name, category and description.
+ * Built from the catalog at startup and kept current through
+ * ProductChangedEvent. Events only reach the instance that made the write,
+ * so the index is also rebuilt from the catalog every
+ * products.search.rebuild-ms to pick up other instances' writes and deletes.
+ * Query terms match exactly, by prefix, or within a small edit distance, and
+ * hits are ranked by field-weighted tf-idf.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.8f;
+    private static final float FUZZY_MATCH = 0.5f;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // term -> (product id -> weighted term frequency)
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, List<String>> termsByProduct = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ids written through events while a rebuild runs, null otherwise; guarded by lock.
+    // Those writes are newer than whatever the rebuild read, so the rebuild leaves them alone.
+    private Set<Long> touchedDuringRebuild;
+
+    // Rows are re-indexed in place and ids the catalog no longer has are dropped at the end,
+    // so searches keep working while a rebuild runs
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${products.search.rebuild-ms:60000}",
+            initialDelayString = "${products.search.rebuild-ms:60000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Set<Long> seen = new HashSet<>();
+            PageRequest pageable = PageRequest.of(0, REBUILD_PAGE_SIZE);
+            List<Product> page = productRepository.findByOrderByIdAsc(pageable);
+            while (!page.isEmpty()) {
+                for (Product product : page) {
+                    seen.add(product.getId());
+                    index(product, true);
+                }
+                page = productRepository.findByIdGreaterThanOrderByIdAsc(page.get(page.size() - 1).getId(), pageable);
+            }
+            lock.writeLock().lock();
+            try {
+                for (Long id : new ArrayList<>(termsByProduct.keySet())) {
+                    if (!seen.contains(id) && !touchedDuringRebuild.contains(id)) {
+                        removeLocked(id);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    public void index(Product product) {
+        index(product, false);
+    }
+
+    private void index(Product product, boolean fromRebuild) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, product.getName(), NAME_WEIGHT);
+        addField(weights, product.getCategory(), CATEGORY_WEIGHT);
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            if (!markWritten(product.getId(), fromRebuild)) {
+                return;
+            }
+            removeLocked(product.getId());
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>())
+                        .put(product.getId(), entry.getValue());
+            }
+            termsByProduct.put(product.getId(), new ArrayList<>(weights.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            markWritten(productId, false);
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called under the write lock; false when a rebuild row is older than an event already applied
+    private boolean markWritten(Long productId, boolean fromRebuild) {
+        if (touchedDuringRebuild == null) {
+            return true;
+        }
+        if (fromRebuild) {
+            return !touchedDuringRebuild.contains(productId);
+        }
+        touchedDuringRebuild.add(productId);
+        return true;
+    }
+
+    /**
+     * Returns ids of products matching every query term, best match first.
+     */
+    public List<Long> search(String query) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documents = termsByProduct.size();
+            Map<Long, Float> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Float> termScores = scoreTerm(queryTerm, documents);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Float> combined = new HashMap<>();
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        Float score = termScores.get(entry.getKey());
+                        if (score != null) {
+                            combined.put(entry.getKey(), entry.getValue() + score);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((a, b) -> {
+                int byScore = Float.compare(b.getValue(), a.getValue());
+                return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+            });
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Float> entry : ranked) {
+                ids.add(entry.getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best score per product for one query term across its exact, prefix and fuzzy matches
+    private Map<Long, Float> scoreTerm(String queryTerm, int documents) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Float>> entry
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            float match = entry.getKey().equals(queryTerm) ? EXACT_MATCH : PREFIX_MATCH;
+            accumulate(scores, entry.getValue(), match, documents);
+        }
+
+        int maxEdits = queryTerm.length() >= 8 ? 2 : queryTerm.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            // Typos are looked for among terms sharing the first letter, which keeps the scan small
+            String first = queryTerm.substring(0, 1);
+            for (Map.Entry<String, Map<Long, Float>> entry
+                    : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                String term = entry.getKey();
+                if (term.startsWith(queryTerm) || Math.abs(term.length() - queryTerm.length()) > maxEdits) {
+                    continue;
+                }
+                if (editDistance(queryTerm, term, maxEdits) <= maxEdits) {
+                    accumulate(scores, entry.getValue(), FUZZY_MATCH, documents);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Float> scores, Map<Long, Float> posting, float match, int documents) {
+        float idf = (float) Math.log(1.0 + (double) documents / posting.size());
+        for (Map.Entry<Long, Float> hit : posting.entrySet()) {
+            float score = match * idf * hit.getValue();
+            Float current = scores.get(hit.getKey());
+            if (current == null || current < score) {
+                scores.put(hit.getKey(), score);
+            }
+        }
+    }
+
+    private void removeLocked(Long productId) {
+        List<String> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void addField(Map<String, Float> weights, String text, float weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (term.length() > 0) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    // Levenshtein distance, giving up once every cell in a row exceeds maxEdits
+    private static int editDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return rowMin;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -1,36 +1,68 @@
 package com.simpleecom.productservice.service;
 
+import com.simpleecom.productservice.event.ProductChangedEvent;
 import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.payload.CacheStats;
+import com.simpleecom.productservice.payload.ProductFacetResult;
+import com.simpleecom.productservice.payload.ProductPage;
+import com.simpleecom.productservice.payload.ProductSearchResult;
 import com.simpleecom.productservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class ProductService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductIdAllocator productIdAllocator;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${products.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${products.batch.max-ids:200}")
+    private int maxBatchSize;
+
     public Product addProduct(Product product) {
         if (product.getId() == null) {
-            product.setId(generateNextProductId());
+            product.setId(productIdAllocator.nextId());
         }
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
     
-    private Long generateNextProductId() {
-        // Find the next available 4-digit ID (1000-9999)
-        for (long id = 1000; id <= 9999; id++) {
-            if (!productRepository.existsById(id)) {
-                return id;
-            }
-        }
-        throw new RuntimeException("No available product IDs in range 1000-9999");
-    }
-
     public Product updateProduct(Long id, Product product) {
         Optional<Product> existingProductOpt = productRepository.findById(id);
         if (existingProductOpt.isPresent()) {
@@ -38,11 +70,12 @@ public class ProductService {
             existingProduct.setName(product.getName());
             existingProduct.setDescription(product.getDescription());
             existingProduct.setPrice(product.getPrice());
-            existingProduct.setQuantity(product.getQuantity());
             existingProduct.setCategory(product.getCategory());
             existingProduct.setImageUrl(product.getImageUrl());
-            System.out.println("Updating product: " + existingProduct.getName() + " with image: " + existingProduct.getImageUrl());
-            return productRepository.save(existingProduct);
+            logger.debug("Updating product {} with image {}", existingProduct.getName(), existingProduct.getImageUrl());
+            Product saved = productRepository.save(existingProduct);
+            eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+            return saved;
         } else {
             throw new RuntimeException("Product not found with id " + id);
         }
@@ -50,18 +83,163 @@ public class ProductService {
 
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return withLeasedStock(productRepository.findAll());
+    }
+
+    public ProductPage getProductPage(ProductSort sort, String cursorToken, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        int limit = Math.min(size, maxPageSize);
+        ProductCursor cursor = cursorToken == null || cursorToken.isEmpty()
+                ? null
+                : ProductCursor.decode(cursorToken, sort);
+
+        // Fetch one extra row to learn whether another slice follows
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Product> rows;
+        switch (sort) {
+            case PRICE:
+                rows = cursor == null
+                        ? productRepository.findFirstPriceSlice(pageable)
+                        : productRepository.findPriceSliceAfter(cursor.getPriceKey(), cursor.getId(), pageable);
+                break;
+            case CATEGORY:
+                if (cursor != null && cursor.getCategoryKey() != null) {
+                    rows = productRepository.findCategorySliceAfter(cursor.getCategoryKey(), cursor.getId(), pageable);
+                    break;
+                }
+                rows = new ArrayList<>(cursor == null
+                        ? productRepository.findByCategoryIsNullOrderByIdAsc(pageable)
+                        : productRepository.findByCategoryIsNullAndIdGreaterThanOrderByIdAsc(cursor.getId(), pageable));
+                if (rows.size() <= limit) {
+                    // Uncategorised products ran out inside this page; continue with the categorised ones
+                    rows.addAll(productRepository.findFirstCategorySlice(PageRequest.of(0, limit + 1 - rows.size())));
+                }
+                break;
+            default:
+                rows = cursor == null
+                        ? productRepository.findByOrderByIdAsc(pageable)
+                        : productRepository.findByIdGreaterThanOrderByIdAsc(cursor.getId(), pageable);
+        }
+
+        if (rows.size() <= limit) {
+            return new ProductPage(withLeasedStock(rows), null);
+        }
+        List<Product> items = withLeasedStock(rows.subList(0, limit));
+        String nextCursor = ProductCursor.after(sort, items.get(limit - 1)).encode();
+        return new ProductPage(items, nextCursor);
+    }
+
+    public ProductSearchResult search(String query, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page must be >= 0 and size positive");
+        }
+        int limit = Math.min(size, maxPageSize);
+        List<Long> ranked = productSearchIndex.search(query);
+
+        int from = (int) Math.min((long) page * limit, ranked.size());
+        int to = Math.min(from + limit, ranked.size());
+        List<Product> items = loadInOrder(ranked.subList(from, to));
+        return new ProductSearchResult(query, ranked.size(), page, limit, items);
+    }
+
+    public ProductFacetResult browse(FacetQuery query, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page must be >= 0 and size positive");
+        }
+        int limit = Math.min(size, maxPageSize);
+        ProductFacetIndex.FacetMatch match = productFacetIndex.query(query);
+        long[] ids = match.getIds();
+
+        int from = (int) Math.min((long) page * limit, ids.length);
+        int to = Math.min(from + limit, ids.length);
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ids[i]);
+        }
+        return new ProductFacetResult(ids.length, page, limit, loadInOrder(pageIds),
+                match.getCategoryCounts(), match.getPriceBuckets());
+    }
+
+    public List<Product> getProductsByIds(List<Long> ids) {
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " ids per request");
+        }
+        return loadInOrder(ids);
+    }
+
+    // Cache hits first, then one findAllById round-trip for the rest; results
+    // follow the order of the given ids and missing products are skipped
+    private List<Product> loadInOrder(List<Long> ids) {
+        Map<Long, Product> byId = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (id == null || byId.containsKey(id)) {
+                continue;
+            }
+            Product cached = productCache.get(id);
+            if (cached != null) {
+                byId.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            long readStamp = productCache.readStamp();
+            for (Product product : productRepository.findAllById(misses)) {
+                productCache.put(product, readStamp);
+                byId.put(product.getId(), product);
+            }
+        }
+        List<Product> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // remove() so a repeated id is only returned once
+            Product product = byId.remove(id);
+            if (product != null) {
+                items.add(product);
+            }
+        }
+        return withLeasedStock(items);
     }
 
     public Product getProductById(Long id) {
+        Product cached = productCache.get(id);
+        if (cached != null) {
+            return withLeasedStock(cached);
+        }
+        long readStamp = productCache.readStamp();
         Optional<Product> product = productRepository.findById(id);
-        return product.orElse(null);
+        product.ifPresent(found -> productCache.put(found, readStamp));
+        return product.map(this::withLeasedStock).orElse(null);
+    }
+
+    public CacheStats getCacheStats() {
+        return productCache.getStats();
     }
 
     public List<Product> getProductsByAdminUsername(String adminUsername) {
-        return productRepository.findByAdminUsername(adminUsername);
+        return withLeasedStock(productRepository.findByAdminUsername(adminUsername));
+    }
+
+    // The row only holds stock no instance has leased; what this instance holds unreserved is still for sale.
+    // Applied after the cache has taken its copy, so cached entries keep the row value.
+    private Product withLeasedStock(Product product) {
+        long leased = inventoryService.leasedUnits(product.getId());
+        if (leased > 0) {
+            product.setQuantity((int) Math.min(Integer.MAX_VALUE, product.getQuantity() + leased));
+        }
+        return product;
+    }
+
+    private List<Product> withLeasedStock(List<Product> products) {
+        for (Product product : products) {
+            withLeasedStock(product);
+        }
+        return products;
     }
 }
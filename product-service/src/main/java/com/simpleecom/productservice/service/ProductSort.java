@@ -0,0 +1,18 @@
+package com.simpleecom.productservice.service;
+
+public enum ProductSort {
+    ID,
+    PRICE,
+    CATEGORY;
+
+    public static ProductSort fromParam(String value) {
+        if (value == null || value.isEmpty()) {
+            return ID;
+        }
+        try {
+            return ProductSort.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.simpleecom.productservice.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Units leased from one product row, spread across a few independently CAS-ed
+ * stripes so that concurrent buyers of the same hot product rarely contend on
+ * the same memory word. Stripes are padded apart to avoid false sharing.
+ * Takes and puts are lock-free; claiming more units from the database and
+ * handing them back synchronize on the instance.
+ */
+class StripedStock {
+
+    private static final int PAD = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    // Set when units were claimed since the last reconcile pass; guarded by this
+    boolean claimedSinceReconcile;
+
+    StripedStock(int stripes) {
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicLongArray(this.stripes * PAD);
+    }
+
+    /**
+     * Takes units out of the stripes if, and only if, all of them are there.
+     * Starts from a random stripe and gathers across the others when a single
+     * stripe is short; a partial gather is handed back before returning false.
+     */
+    boolean tryTake(long units) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        int first = start * PAD;
+        long current = cells.get(first);
+        while (current >= units) {
+            if (cells.compareAndSet(first, current, current - units)) {
+                return true;
+            }
+            current = cells.get(first);
+        }
+
+        long taken = 0;
+        for (int i = 0; i < stripes && taken < units; i++) {
+            int index = ((start + i) % stripes) * PAD;
+            while (true) {
+                long value = cells.get(index);
+                long take = Math.min(value, units - taken);
+                if (take <= 0) {
+                    break;
+                }
+                if (cells.compareAndSet(index, value, value - take)) {
+                    taken += take;
+                    break;
+                }
+            }
+        }
+        if (taken < units) {
+            put(taken);
+            return false;
+        }
+        return true;
+    }
+
+    void put(long units) {
+        if (units != 0) {
+            cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD, units);
+        }
+    }
+
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    // Empties every stripe and returns what was there; concurrent takes simply miss
+    long drain() {
+        long drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += cells.getAndSet(i * PAD, 0);
+        }
+        return drained;
+    }
+}
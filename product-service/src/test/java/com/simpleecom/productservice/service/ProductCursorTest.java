@@ -0,0 +1,90 @@
+package com.simpleecom.productservice.service;
+
+import com.simpleecom.productservice.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductCursorTest {
+
+    private static Product product(long id, double price, String category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(price);
+        product.setCategory(category);
+        return product;
+    }
+
+    private static ProductCursor roundTrip(ProductSort sort, Product last) {
+        return ProductCursor.decode(ProductCursor.after(sort, last).encode(), sort);
+    }
+
+    @Test
+    void testIdCursorRoundTrip() {
+        ProductCursor cursor = roundTrip(ProductSort.ID, product(42, 9.99, "books"));
+
+        assertEquals(ProductSort.ID, cursor.getSort());
+        assertEquals(42, cursor.getId());
+    }
+
+    @Test
+    void testPriceCursorKeepsExactPrice() {
+        ProductCursor cursor = roundTrip(ProductSort.PRICE, product(7, 0.1 + 0.2, null));
+
+        assertEquals(0.1 + 0.2, cursor.getPriceKey());
+        assertEquals(7, cursor.getId());
+    }
+
+    @Test
+    void testCategoryCursorKeepsSeparatorInKey() {
+        ProductCursor cursor = roundTrip(ProductSort.CATEGORY, product(3, 1, "home|garden"));
+
+        assertEquals("home|garden", cursor.getCategoryKey());
+        assertEquals(3, cursor.getId());
+    }
+
+    @Test
+    void testNullCategoryStaysDistinctFromEmpty() {
+        ProductCursor uncategorised = roundTrip(ProductSort.CATEGORY, product(1, 1, null));
+        ProductCursor empty = roundTrip(ProductSort.CATEGORY, product(1, 1, ""));
+
+        assertNull(uncategorised.getCategoryKey());
+        assertEquals("", empty.getCategoryKey());
+    }
+
+    @Test
+    void testTokenIsUrlSafe() {
+        String token = ProductCursor.after(ProductSort.CATEGORY, product(1, 1, "??>>~~")).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void testCursorForAnotherSortIsRejected() {
+        String token = ProductCursor.after(ProductSort.PRICE, product(1, 5, null)).encode();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ProductCursor.decode(token, ProductSort.ID));
+        assertEquals("Cursor was issued for sort price", e.getMessage());
+    }
+
+    @Test
+    void testMalformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("not base64!", ProductSort.ID));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(encode("ID|1"), ProductSort.ID));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(encode("ID|x|"), ProductSort.ID));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(encode("PRICE|1|cheap"), ProductSort.PRICE));
+        // Category keys must carry their tag
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(encode("CATEGORY|1|books"), ProductSort.CATEGORY));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
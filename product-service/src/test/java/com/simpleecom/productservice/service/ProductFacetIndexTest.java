@@ -0,0 +1,111 @@
+package com.simpleecom.productservice.service;
+
+import com.simpleecom.productservice.model.Product;
+import com.simpleecom.productservice.payload.ProductFacetResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductFacetIndexTest {
+
+    private InventoryService inventoryService;
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setup() {
+        inventoryService = mock(InventoryService.class);
+        index = new ProductFacetIndex(new double[]{0, 25, 50, 100});
+        ReflectionTestUtils.setField(index, "inventoryService", inventoryService);
+
+        index.index(product(1, 10, 5, "books", "alice"));
+        index.index(product(2, 30, 0, "books", "alice"));
+        index.index(product(3, 60, 2, "toys", "bob"));
+        index.index(product(4, 150, 1, "toys", "alice"));
+        index.index(product(5, 25, 3, null, "bob"));
+    }
+
+    private static Product product(long id, double price, int quantity, String category, String admin) {
+        return new Product(id, "p" + id, null, price, quantity, admin, null, category);
+    }
+
+    private long[] ids(FacetQuery query) {
+        return index.query(query).getIds();
+    }
+
+    @Test
+    void testNoFiltersMatchesEverything() {
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, ids(new FacetQuery(null, null, null, null, null)));
+    }
+
+    @Test
+    void testFiltersAreCombined() {
+        assertArrayEquals(new long[]{1, 2}, ids(new FacetQuery("books", null, null, null, null)));
+        assertArrayEquals(new long[]{1, 4}, ids(new FacetQuery(null, null, null, true, "alice")));
+        assertArrayEquals(new long[]{2}, ids(new FacetQuery(null, null, null, false, null)));
+        assertArrayEquals(new long[]{4}, ids(new FacetQuery("toys", null, null, null, "alice")));
+        assertArrayEquals(new long[0], ids(new FacetQuery("garden", null, null, null, null)));
+    }
+
+    @Test
+    void testPriceRangeChecksEdgeBucketsExactly() {
+        // 25 sits on a bucket bound and 60 inside the partly covered 50-100 bucket
+        assertArrayEquals(new long[]{2, 5}, ids(new FacetQuery(null, 25.0, 50.0, null, null)));
+        assertArrayEquals(new long[]{2, 3, 5}, ids(new FacetQuery(null, 20.0, 60.0, null, null)));
+        assertArrayEquals(new long[]{4}, ids(new FacetQuery(null, 100.0, null, null, null)));
+        assertArrayEquals(new long[]{1}, ids(new FacetQuery(null, null, 24.99, null, null)));
+    }
+
+    @Test
+    void testFacetCountsIgnoreTheirOwnFilter() {
+        ProductFacetIndex.FacetMatch match = index.query(new FacetQuery("books", 0.0, 50.0, null, null));
+
+        assertArrayEquals(new long[]{1, 2}, match.getIds());
+        // Category counts honour the price filter but not the category filter
+        Map<String, Integer> categories = match.getCategoryCounts();
+        assertEquals(2, categories.get("books"));
+        assertNull(categories.get("toys"));
+        // Price counts honour the category filter but not the price filter
+        List<ProductFacetResult.PriceBucket> buckets = match.getPriceBuckets();
+        assertEquals(4, buckets.size());
+        assertEquals(1, buckets.get(0).getCount());
+        assertEquals(1, buckets.get(1).getCount());
+        assertEquals(0, buckets.get(2).getCount());
+        assertNull(buckets.get(3).getMax());
+    }
+
+    @Test
+    void testReindexMovesProductBetweenFacets() {
+        index.index(product(2, 120, 4, "toys", "bob"));
+
+        assertArrayEquals(new long[]{1}, ids(new FacetQuery("books", null, null, null, null)));
+        assertArrayEquals(new long[]{2, 3, 4}, ids(new FacetQuery("toys", null, null, true, null)));
+        assertArrayEquals(new long[]{2, 4}, ids(new FacetQuery(null, 100.0, null, null, null)));
+    }
+
+    @Test
+    void testRemovedSlotIsReused() {
+        index.remove(3L);
+        index.index(product(6, 5, 1, "garden", "carol"));
+
+        assertArrayEquals(new long[]{1, 2, 4, 5, 6}, ids(new FacetQuery(null, null, null, null, null)));
+        assertArrayEquals(new long[]{4}, ids(new FacetQuery("toys", null, null, null, null)));
+        assertArrayEquals(new long[]{6}, ids(new FacetQuery(null, null, null, null, "carol")));
+    }
+
+    @Test
+    void testLeasedUnitsCountAsInStock() {
+        when(inventoryService.leasedUnits(7L)).thenReturn(3L);
+        index.index(product(7, 40, 0, "books", "alice"));
+
+        assertArrayEquals(new long[]{1, 3, 4, 5, 7}, ids(new FacetQuery(null, null, null, true, null)));
+    }
+}
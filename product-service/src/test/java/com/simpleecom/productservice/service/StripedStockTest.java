@@ -0,0 +1,97 @@
+package com.simpleecom.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedStockTest {
+
+    @Test
+    void testTakeGathersAcrossStripes() {
+        StripedStock stock = new StripedStock(4);
+        // Spread one unit at a time so no single stripe can cover the take
+        for (int i = 0; i < 40; i++) {
+            stock.put(1);
+        }
+
+        assertTrue(stock.tryTake(40));
+        assertEquals(0, stock.available());
+    }
+
+    @Test
+    void testShortTakeLeavesStockUntouched() {
+        StripedStock stock = new StripedStock(4);
+        for (int i = 0; i < 10; i++) {
+            stock.put(1);
+        }
+
+        assertFalse(stock.tryTake(11));
+        assertEquals(10, stock.available());
+    }
+
+    @Test
+    void testDrainEmptiesEveryStripe() {
+        StripedStock stock = new StripedStock(8);
+        for (int i = 0; i < 25; i++) {
+            stock.put(2);
+        }
+
+        assertEquals(50, stock.drain());
+        assertEquals(0, stock.available());
+        assertFalse(stock.tryTake(1));
+    }
+
+    @Test
+    void testSingleStripe() {
+        StripedStock stock = new StripedStock(0);
+        stock.put(5);
+
+        assertTrue(stock.tryTake(5));
+        assertFalse(stock.tryTake(1));
+    }
+
+    @Test
+    void testConcurrentTakesNeverOversell() throws Exception {
+        StripedStock stock = new StripedStock(4);
+        int units = 1000;
+        for (int i = 0; i < units; i++) {
+            stock.put(1);
+        }
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int taken = 0;
+                for (int i = 0; i < 500; i++) {
+                    int want = 1 + i % 3;
+                    if (stock.tryTake(want)) {
+                        taken += want;
+                    }
+                }
+                return taken;
+            }));
+        }
+        start.countDown();
+        int taken = 0;
+        for (Future<Integer> result : results) {
+            taken += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(units, taken + stock.available());
+        assertTrue(stock.available() >= 0);
+    }
+}
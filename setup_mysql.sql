@@ -2,12 +2,14 @@
 CREATE DATABASE IF NOT EXISTS simpleecom_userdb;
 CREATE DATABASE IF NOT EXISTS simpleecom_productdb;
 CREATE DATABASE IF NOT EXISTS simpleecom_cartdb;
+CREATE DATABASE IF NOT EXISTS simpleecom_orderdb;
 
 -- Create user and grant permissions
 CREATE USER IF NOT EXISTS 'root'@'localhost' IDENTIFIED BY 'root';
 GRANT ALL PRIVILEGES ON simpleecom_userdb.* TO 'root'@'localhost';
 GRANT ALL PRIVILEGES ON simpleecom_productdb.* TO 'root'@'localhost';
 GRANT ALL PRIVILEGES ON simpleecom_cartdb.* TO 'root'@'localhost';
+GRANT ALL PRIVILEGES ON simpleecom_orderdb.* TO 'root'@'localhost';
 FLUSH PRIVILEGES;
 
 -- Use product database and show it's ready
@@ -18,6 +20,10 @@ SELECT 'Product database ready' as status;
 USE simpleecom_cartdb;
 SELECT 'Cart database ready' as status;
 
+-- Use order database and show it's ready
+USE simpleecom_orderdb;
+SELECT 'Order database ready' as status;
+
 -- Use user database and show it's ready
 USE simpleecom_userdb;
 SELECT 'User database ready' as status;
\ No newline at end of file
@@ -1,6 +1,12 @@
 @echo off
 echo Starting SimpleEcom Services...
 
+echo.
+echo Installing the shared common module...
+pushd common
+call mvn -q install
+popd
+
 echo.
 echo Starting User Service (Port 8081)...
 start "User Service" cmd /k "cd user-service && mvn spring-boot:run"
@@ -17,11 +23,18 @@ echo.
 echo Starting Cart Service (Port 8083)...
 start "Cart Service" cmd /k "cd cart-service && mvn spring-boot:run"
 
+timeout /t 10
+
+echo.
+echo Starting Order Service (Port 8084)...
+start "Order Service" cmd /k "cd order-service && mvn spring-boot:run"
+
 echo.
 echo All services are starting...
 echo User Service: http://localhost:8081
 echo Product Service: http://localhost:8082
 echo Cart Service: http://localhost:8083
+echo Order Service: http://localhost:8084
 echo.
 echo Frontend: http://localhost:4200
 pause
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.simpleecom.userservice.config;
 
 import com.simpleecom.userservice.model.Role;
 import com.simpleecom.userservice.repository.RoleRepository;
+import com.simpleecom.userservice.service.RoleRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -11,9 +14,14 @@ import java.util.Arrays;
 @Component
 public class RoleDataInitializer implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(RoleDataInitializer.class);
+
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private RoleRegistry roleRegistry;
+
     @Override
     public void run(String... args) throws Exception {
         if (roleRepository.count() == 0) {
@@ -27,7 +35,8 @@ public class RoleDataInitializer implements CommandLineRunner {
             userRole.setName("ROLE_USER");
 
             roleRepository.saveAll(Arrays.asList(superAdminRole, adminRole, userRole));
-            System.out.println("Initialized roles in the database.");
+            logger.info("Initialized roles in the database");
         }
+        roleRegistry.refresh();
     }
 }
@@ -2,11 +2,17 @@ package com.simpleecom.userservice.controller;
 
 import com.simpleecom.userservice.model.Role;
 import com.simpleecom.userservice.model.User;
-import com.simpleecom.userservice.repository.RoleRepository;
 import com.simpleecom.userservice.repository.UserRepository;
 import com.simpleecom.userservice.security.JwtUtil;
+import com.simpleecom.userservice.security.PasswordPoolSaturatedException;
+import com.simpleecom.userservice.security.PasswordWorkerPool;
+import com.simpleecom.userservice.service.RoleRegistry;
 import com.simpleecom.userservice.service.UserDetailsImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -24,6 +30,8 @@ import java.util.Set;
 @CrossOrigin(origins = "*")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -31,7 +39,7 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -39,6 +47,12 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PasswordWorkerPool passwordWorkerPool;
+
+    @Value("${security.password-pool.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
     @GetMapping("/test")
     public ResponseEntity<?> test() {
         return ResponseEntity.ok("Auth service is working!");
@@ -47,41 +61,31 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody com.simpleecom.userservice.payload.RegistrationRequest signUpRequest) {
         try {
-            if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-                return ResponseEntity.badRequest().body("Error: Username is already taken!");
-            }
-            if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-                return ResponseEntity.badRequest().body("Error: Email is already in use!");
+            // One indexed lookup keeps duplicate sign-ups from burning a BCrypt slot
+            if (userRepository.existsByUsernameOrEmail(signUpRequest.getUsername(), signUpRequest.getEmail())) {
+                return duplicate(signUpRequest);
             }
 
-            // Creating New User
+            String encodedPassword = passwordWorkerPool.run(() -> passwordEncoder.encode(signUpRequest.getPassword()));
             User user = new User(signUpRequest.getUsername(),
                     signUpRequest.getEmail(),
-                    passwordEncoder.encode(signUpRequest.getPassword()));
+                    encodedPassword);
 
             Set<Role> roles = new HashSet<>();
 
             if (signUpRequest.getRoles() == null || signUpRequest.getRoles().isEmpty()) {
-                Role userRole = roleRepository.findByName("ROLE_USER")
-                        .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                roles.add(userRole);
+                roles.add(roleRegistry.require("ROLE_USER"));
             } else {
                 signUpRequest.getRoles().forEach(role -> {
                     switch (role.toUpperCase()) {
                         case "SUPERADMIN":
-                            Role superAdminRole = roleRepository.findByName("ROLE_SUPERADMIN")
-                                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                            roles.add(superAdminRole);
+                            roles.add(roleRegistry.require("ROLE_SUPERADMIN"));
                             break;
                         case "ADMIN":
-                            Role adminRole = roleRepository.findByName("ROLE_ADMIN")
-                                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                            roles.add(adminRole);
+                            roles.add(roleRegistry.require("ROLE_ADMIN"));
                             break;
                         default:
-                            Role userRole = roleRepository.findByName("ROLE_USER")
-                                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                            roles.add(userRole);
+                            roles.add(roleRegistry.require("ROLE_USER"));
                     }
                 });
             }
@@ -91,16 +95,30 @@ public class AuthController {
             userRepository.save(user);
 
             return ResponseEntity.ok("User registered successfully!");
+        } catch (DataIntegrityViolationException e) {
+            // Backstop for a concurrent sign-up that slipped past the pre-check
+            if (userRepository.existsByUsernameOrEmail(signUpRequest.getUsername(), signUpRequest.getEmail())) {
+                return duplicate(signUpRequest);
+            }
+            logger.error("Registration failed", e);
+            return ResponseEntity.status(500).body("Error: " + e.getMessage());
+        } catch (PasswordPoolSaturatedException e) {
+            return busy();
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Registration failed", e);
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
         }
     }
 
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@RequestBody User loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        Authentication authentication;
+        try {
+            authentication = passwordWorkerPool.run(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())));
+        } catch (PasswordPoolSaturatedException e) {
+            return busy();
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtil.generateJwtToken(authentication);
@@ -110,6 +128,19 @@ public class AuthController {
         return ResponseEntity.ok(new JwtResponse(jwt, userDetails.getUsername(), userDetails.getAuthorities()));
     }
 
+    private ResponseEntity<?> duplicate(com.simpleecom.userservice.payload.RegistrationRequest signUpRequest) {
+        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+            return ResponseEntity.badRequest().body("Error: Username is already taken!");
+        }
+        return ResponseEntity.badRequest().body("Error: Email is already in use!");
+    }
+
+    private ResponseEntity<?> busy() {
+        return ResponseEntity.status(503)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body("Error: Authentication is busy, please retry shortly");
+    }
+
     // JwtResponse class for login response
     public static class JwtResponse {
         private String token;
@@ -2,12 +2,17 @@ package com.simpleecom.userservice.controller;
 
 import com.simpleecom.userservice.model.Role;
 import com.simpleecom.userservice.repository.RoleRepository;
+import com.simpleecom.userservice.service.RoleRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -17,9 +22,27 @@ public class RoleController {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private RoleRegistry roleRegistry;
+
     @GetMapping
     public ResponseEntity<List<Role>> getAllRoles() {
-        List<Role> roles = roleRepository.findAll();
+        List<Role> roles = new ArrayList<>(roleRegistry.getAll());
         return ResponseEntity.ok(roles);
     }
+
+    @PostMapping
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    public ResponseEntity<?> createRole(@RequestBody Role role) {
+        if (role.getName() == null || role.getName().isEmpty()) {
+            return ResponseEntity.badRequest().body("Error: Role name is required");
+        }
+        String name = role.getName().startsWith("ROLE_") ? role.getName() : "ROLE_" + role.getName();
+        if (roleRepository.findByName(name).isPresent()) {
+            return ResponseEntity.badRequest().body("Error: Role already exists");
+        }
+        Role saved = roleRepository.save(new Role(name));
+        roleRegistry.refresh();
+        return ResponseEntity.ok(saved);
+    }
 }
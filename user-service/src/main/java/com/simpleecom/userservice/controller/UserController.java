@@ -3,6 +3,7 @@ package com.simpleecom.userservice.controller;
 import com.simpleecom.userservice.model.User;
 import com.simpleecom.userservice.repository.UserRepository;
 import com.simpleecom.userservice.service.UserDetailsImpl;
+import com.simpleecom.userservice.service.UserStatusCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +21,9 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
     @GetMapping("/profile")
     @PreAuthorize("hasRole('ADMIN','SUPER_ADMIN')")
     public ResponseEntity<?> getUserProfile(Authentication authentication) {
@@ -67,16 +71,19 @@ public class UserController {
         }
         user.setEnabled(!user.isEnabled());
         userRepository.save(user);
+        userStatusCache.invalidate(user.getUsername());
         return ResponseEntity.ok("User status updated");
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('SUPERADMIN')")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        if (!userRepository.existsById(id)) {
+        User user = userRepository.findById(id).orElse(null);
+        if (user == null) {
             return ResponseEntity.notFound().build();
         }
         userRepository.deleteById(id);
+        userStatusCache.invalidate(user.getUsername());
         return ResponseEntity.ok("User deleted");
     }
 
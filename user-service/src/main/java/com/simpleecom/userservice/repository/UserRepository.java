@@ -2,6 +2,8 @@ package com.simpleecom.userservice.repository;
 
 import com.simpleecom.userservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +15,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.username = :username OR u.email = :email")
+    boolean existsByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
+
+    @Query("SELECT u.enabled FROM User u WHERE u.username = :username")
+    Optional<Boolean> findEnabledByUsername(@Param("username") String username);
 }
@@ -1,8 +1,15 @@
 package com.simpleecom.userservice.security;
 
+import com.simpleecom.common.security.IdentityHeaderVerifier;
+import com.simpleecom.common.security.TokenVerificationMetrics;
+import com.simpleecom.userservice.service.UserDetailsImpl;
 import com.simpleecom.userservice.service.UserDetailsServiceImpl;
+import com.simpleecom.userservice.service.UserStatusCache;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +21,9 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
@@ -26,17 +36,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private IdentityHeaderVerifier identityVerifier;
+
+    @Autowired
+    private TokenVerificationMetrics verificationMetrics;
+
+    @Value("${security.stateless-auth.enabled:true}")
+    private boolean statelessAuth;
+
     @Override
     protected void doFilterInternal(
             @org.springframework.lang.NonNull HttpServletRequest request,
             @org.springframework.lang.NonNull HttpServletResponse response,
             @org.springframework.lang.NonNull FilterChain filterChain) throws ServletException, IOException {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-                String username = jwtUtil.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Identity already verified by the gateway; the bearer token is only a fallback
+            // for direct service-to-service calls
+            String header = request.getHeader(IdentityHeaderVerifier.HEADER);
+            long start = System.nanoTime();
+            IdentityHeaderVerifier.Identity identity = identityVerifier.verify(header);
+            if (header != null) {
+                verificationMetrics.recordIdentity(start, identity != null);
+            }
+            UserDetails userDetails;
+            if (identity != null) {
+                userDetails = resolvePrincipal(identity);
+            } else {
+                String jwt = parseJwt(request);
+                start = System.nanoTime();
+                Claims claims = jwt == null ? null : jwtUtil.parseClaims(jwt);
+                if (jwt != null) {
+                    verificationMetrics.recordJwt(start, claims != null);
+                }
+                userDetails = claims == null ? null : resolvePrincipal(claims);
+            }
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -53,6 +91,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(IdentityHeaderVerifier.Identity identity) {
+        if (!statelessAuth || identity.getUid() == null) {
+            return userDetailsService.loadUserByUsername(identity.getUsername());
+        }
+        return new UserDetailsImpl(identity.getUid(), identity.getUsername(), identity.getEmail(),
+                null, identity.getAuthorities(), userStatusCache.isEnabled(identity.getUsername()));
+    }
+
+    private UserDetails resolvePrincipal(Claims claims) {
+        String username = claims.getSubject();
+        Object uid = claims.get("uid");
+        // Tokens issued before uid/email claims existed still need the database
+        if (!statelessAuth || !(uid instanceof Number)) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            roles = Collections.emptyList();
+        }
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role))
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(((Number) uid).longValue(), username, claims.get("email", String.class),
+                null, authorities, userStatusCache.isEnabled(username));
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
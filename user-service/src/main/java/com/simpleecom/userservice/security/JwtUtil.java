@@ -1,5 +1,6 @@
 package com.simpleecom.userservice.security;
 
+import com.simpleecom.common.logging.LogSampler;
 import io.jsonwebtoken.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 import com.simpleecom.userservice.service.UserDetailsImpl;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -17,6 +19,9 @@ public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    // Bad tokens arrive at request rate; a few per window are enough to notice them
+    private static final LogSampler INVALID_TOKEN_LOG = new LogSampler(5, 10, TimeUnit.SECONDS);
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -33,6 +38,8 @@ public class JwtUtil {
     return Jwts.builder()
             .setSubject(userPrincipal.getUsername())
             .claim("roles", roles)
+            .claim("uid", userPrincipal.getId())
+            .claim("email", userPrincipal.getEmail())
             .setIssuedAt(new Date())
             .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
             .signWith(SignatureAlgorithm.HS512, jwtSecret)
@@ -44,21 +51,32 @@ public class JwtUtil {
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    // Verifies the token once and returns its claims, or null when it is not valid
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-            return true;
+            return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
-            logger.error("Invalid JWT signature: {}", e.getMessage());
+            logInvalid("Invalid JWT signature", e);
         } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            logInvalid("Invalid JWT token", e);
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            logInvalid("JWT token is expired", e);
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            logInvalid("JWT token is unsupported", e);
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            logInvalid("JWT claims string is empty", e);
         }
 
-        return false;
+        return null;
+    }
+
+    private void logInvalid(String reason, RuntimeException e) {
+        long suppressed = INVALID_TOKEN_LOG.acquire();
+        if (suppressed >= 0) {
+            logger.warn("{}: {} ({} similar suppressed)", reason, e.getMessage(), suppressed);
+        }
     }
 }
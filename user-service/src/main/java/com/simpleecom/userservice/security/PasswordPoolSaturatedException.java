@@ -0,0 +1,8 @@
+package com.simpleecom.userservice.security;
+
+public class PasswordPoolSaturatedException extends RuntimeException {
+
+    public PasswordPoolSaturatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,88 @@
+package com.simpleecom.userservice.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, bounded pool that caps how many BCrypt hashes run at once, so a
+ * burst of logins cannot take every core. The calling request thread still
+ * waits for the result, for at most the timeout. When the queue is full
+ * callers get a PasswordPoolSaturatedException straight away.
+ */
+@Component
+public class PasswordWorkerPool {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    @Autowired
+    private CurrentTraceContext currentTraceContext;
+
+    public PasswordWorkerPool(@Value("${security.password-pool.threads:4}") int threads,
+                              @Value("${security.password-pool.queue-capacity:64}") int queueCapacity,
+                              @Value("${security.password-pool.timeout-ms:10000}") long timeoutMs) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+    }
+
+    public <T> T run(Callable<T> task) {
+        Future<T> future;
+        AtomicBoolean started = new AtomicBoolean();
+        try {
+            // Keeps the user lookup's repository and JDBC spans inside the login's trace
+            future = executor.submit(currentTraceContext.wrap(() -> {
+                started.set(true);
+                return task.call();
+            }));
+        } catch (RejectedExecutionException e) {
+            throw new PasswordPoolSaturatedException("Password worker queue is full");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drops a queued task; a running hash is not interruptible and finishes unobserved
+            future.cancel(true);
+            throw new PasswordPoolSaturatedException(started.get()
+                    ? "Password check timed out while running"
+                    : "Password check timed out in queue");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordPoolSaturatedException("Interrupted waiting for password check");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.simpleecom.userservice.service;
+
+import com.simpleecom.userservice.model.Role;
+import com.simpleecom.userservice.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable in-process copy of the roles table. Loaded by RoleDataInitializer
+ * at startup and reloaded whenever RoleController changes a role.
+ */
+@Component
+public class RoleRegistry {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private volatile Map<String, Role> rolesByName = Collections.emptyMap();
+
+    public void refresh() {
+        Map<String, Role> loaded = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role);
+        }
+        rolesByName = Collections.unmodifiableMap(loaded);
+    }
+
+    public Role require(String name) {
+        Role role = rolesByName.get(name);
+        if (role == null) {
+            // May have been created by another instance since the last load
+            refresh();
+            role = rolesByName.get(name);
+        }
+        if (role == null) {
+            throw new RuntimeException("Error: Role is not found.");
+        }
+        return role;
+    }
+
+    public Collection<Role> getAll() {
+        return rolesByName.values();
+    }
+}
@@ -0,0 +1,117 @@
+package com.simpleecom.userservice.service;
+
+import com.simpleecom.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived record of whether a username may still authenticate, used when
+ * the principal is built from token claims. UserController invalidates
+ * entries when it disables or deletes a user; other instances pick the
+ * change up once security.user-status.ttl-ms has passed. A lookup carries the
+ * stamp taken before its database read and is not kept if an invalidation for
+ * that username landed since, so a slow reader cannot re-cache the old status.
+ */
+@Component
+public class UserStatusCache implements MeterBinder {
+
+    private static final int WRITE_STRIPES = 1024;
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Clock value of the latest invalidation per username stripe; collisions only cost a skipped put
+    private final AtomicLong writeClock = new AtomicLong();
+    private final AtomicLongArray lastWrite = new AtomicLongArray(WRITE_STRIPES);
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${security.user-status.ttl-ms:30000}") long ttlMs,
+                           @Value("${security.user-status.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled(String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.enabled;
+        }
+        misses.increment();
+
+        long readStamp = writeClock.get();
+        // Deleted users resolve to disabled
+        boolean enabled = userRepository.findEnabledByUsername(username).orElse(false);
+        if (lastWrite.get(stripe(username)) > readStamp) {
+            return enabled;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        Entry loaded = new Entry(enabled, now + ttlMs);
+        entries.put(username, loaded);
+        // An invalidation between the check and the put may have removed before it landed
+        if (lastWrite.get(stripe(username)) > readStamp) {
+            entries.remove(username, loaded);
+        }
+        return enabled;
+    }
+
+    public void invalidate(String username) {
+        lastWrite.accumulateAndGet(stripe(username), writeClock.incrementAndGet(), Math::max);
+        entries.remove(username);
+    }
+
+    private static int stripe(String username) {
+        return username.hashCode() & (WRITE_STRIPES - 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "user-status", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "user-status", "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", entries, ConcurrentHashMap::size)
+                .tag("cache", "user-status")
+                .register(registry);
+    }
+
+    private void makeRoom(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static class Entry {
+        private final boolean enabled;
+        private final long expiresAt;
+
+        private Entry(boolean enabled, long expiresAt) {
+            this.enabled = enabled;
+            this.expiresAt = expiresAt;
+        }
+    }
+}